@@ -0,0 +1,78 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.transfer.access.BlockLookupAccess;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Dispatch cost of a simple block lookup holding many registrations, most of which are for other blocks
+ * and block entity types than the one queried.
+ * <p>
+ * The queries are made against a real block entity and a {@code null} level, which the providers registered here never touch.
+ */
+@State(Scope.Thread)
+public class BlockLookupBenchmark {
+    @Param({"1", "16", "128"})
+    public int registrations;
+    
+    private BlockLookupAccess<Object, Direction> lookup;
+    private BlockState state;
+    private BlockEntity blockEntity;
+    private BlockState plainState;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        lookup = BlockLookupAccess.<Object, Direction>create().attachSimpleLookup();
+        Object result = new Object();
+        for (int i = 0; i < registrations; i++) {
+            ResourceLocation id = new ResourceLocation("benchmark", "provider_" + i);
+            if (i % 2 == 0) {
+                lookup.registerForBlocks(id, (level, pos, state, blockEntity, context) -> null, Blocks.STONE, Blocks.DIRT);
+            } else {
+                lookup.registerForBlockEntities(id, (level, pos, state, blockEntity, context) -> null, BlockEntityType.FURNACE);
+            }
+        }
+        lookup.registerForBlockEntities(new ResourceLocation("benchmark", "chest"), (level, pos, state, blockEntity, context) -> result, BlockEntityType.CHEST);
+        state = Blocks.CHEST.defaultBlockState();
+        blockEntity = new ChestBlockEntity(BlockPos.ZERO, state);
+        plainState = Blocks.STONE.defaultBlockState();
+    }
+    
+    @Benchmark
+    public Object blockEntityHit() {
+        return lookup.get(null, BlockPos.ZERO, state, blockEntity, Direction.UP);
+    }
+    
+    // walks the block providers registered for stone before reaching the block entity ones
+    @Benchmark
+    public Object blockProvidersThenBlockEntity() {
+        return lookup.get(null, BlockPos.ZERO, plainState, blockEntity, Direction.UP);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.item.simple.SimpleItemTransferHandler;
+import dev.architectury.transfer.item.wrapper.CombinedItemTransferHandler;
+import dev.architectury.transfer.item.wrapper.IndexedCombinedItemTransferHandler;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indexed access and insertion on a {@link CombinedItemTransferHandler} made of several chests,
+ * compared with the {@link IndexedCombinedItemTransferHandler} over the same chests.
+ */
+@State(Scope.Thread)
+public class CombinedTransferBenchmark {
+    @Param({"1", "8", "32"})
+    public int handlers;
+    
+    private CombinedItemTransferHandler combined;
+    private IndexedCombinedItemTransferHandler indexed;
+    private int size;
+    private ItemStack stone;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        List<TransferHandler<ItemStack>> children = new ArrayList<>();
+        for (int i = 0; i < handlers; i++) {
+            SimpleItemTransferHandler child = new SimpleItemTransferHandler(27);
+            child.container.setItem(0, new ItemStack(Items.COBBLESTONE, 64));
+            children.add(child);
+        }
+        combined = () -> children;
+        indexed = new IndexedCombinedItemTransferHandler(children);
+        size = combined.size();
+        stone = new ItemStack(Items.STONE, 16);
+    }
+    
+    @Benchmark
+    public long getEveryIndex() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += combined.get(i).getResource().getCount();
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public long getEveryIndexIndexed() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += indexed.get(i).getResource().getCount();
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public int size() {
+        return combined.size();
+    }
+    
+    @Benchmark
+    public long insertSimulate() {
+        return combined.insert(stone, TransferAction.SIMULATE);
+    }
+}
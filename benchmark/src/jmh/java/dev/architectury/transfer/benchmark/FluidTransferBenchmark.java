@@ -0,0 +1,66 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.fluid.FluidStack;
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.fluid.simple.SimpleFluidTransferHandler;
+import dev.architectury.transfer.wrapper.single.SimpleSingleTransferHandler;
+import net.minecraft.world.level.material.Fluids;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Insert and extract throughput of {@link SimpleFluidTransferHandler} of several sizes.
+ */
+@State(Scope.Thread)
+public class FluidTransferBenchmark {
+    @Param({"1", "4", "16"})
+    public int size;
+    
+    private SimpleFluidTransferHandler<SimpleSingleTransferHandler<FluidStack>> handler;
+    private FluidStack water;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        handler = SimpleFluidTransferHandler.of(size, FluidStack.bucketAmount() * 8);
+        water = FluidStack.create(Fluids.WATER, FluidStack.bucketAmount());
+        // half full with another fluid, so that lookups have to skip tanks
+        for (int i = 0; i < size / 2; i++) {
+            handler.set(i, FluidStack.create(Fluids.LAVA, FluidStack.bucketAmount() * 8));
+        }
+    }
+    
+    @Benchmark
+    public long insertSimulate() {
+        return handler.insert(water, TransferAction.SIMULATE);
+    }
+    
+    @Benchmark
+    public FluidStack insertThenExtract() {
+        handler.insert(water, TransferAction.ACT);
+        return handler.extract(water, TransferAction.ACT);
+    }
+    
+    @Benchmark
+    public FluidStack extractAnySimulate() {
+        return handler.extractAny(FluidStack.bucketAmount(), TransferAction.SIMULATE);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.item.ItemKey;
+import dev.architectury.transfer.item.ItemQuery;
+import dev.architectury.transfer.item.simple.IndexedItemTransferHandler;
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Insert and extract throughput of {@link IndexedItemTransferHandler} holding many types,
+ * these should stay flat as the amount of types grows.
+ */
+@State(Scope.Thread)
+public class IndexedItemTransferBenchmark {
+    @Param({"10", "100", "1000"})
+    public int types;
+    
+    private IndexedItemTransferHandler handler;
+    private ItemStack stone;
+    private ItemQuery stoneQuery;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        verify();
+        handler = new IndexedItemTransferHandler(types + 1, Long.MAX_VALUE, Long.MAX_VALUE);
+        int added = 0;
+        for (Item item : Registry.ITEM) {
+            if (added >= types) break;
+            if (item == Items.AIR || item == Items.STONE) continue;
+            handler.insert(new ItemStack(item, 64), TransferAction.ACT);
+            added++;
+        }
+        stone = new ItemStack(Items.STONE, 16);
+        stoneQuery = ItemQuery.exact(stone);
+    }
+    
+    /**
+     * Fails the run when the handler misbehaves, there is no point in measuring a broken handler.
+     */
+    private static void verify() {
+        IndexedItemTransferHandler handler = new IndexedItemTransferHandler(2, 100, 150);
+        check(handler.size() == 1, "an empty handler exposes one empty slot");
+        check(handler.get(0).insert(new ItemStack(Items.STONE, 64), TransferAction.ACT) == 64, "the empty slot takes a new type");
+        check(handler.insert(new ItemStack(Items.STONE, 64), TransferAction.ACT) == 36, "a type is capped per type");
+        check(handler.insert(new ItemStack(Items.DIRT, 64), TransferAction.ACT) == 50, "all types are capped in total");
+        check(handler.size() == 2, "a full handler has no empty slot");
+        check(handler.insert(new ItemStack(Items.SAND), TransferAction.SIMULATE) == 0, "types are capped");
+        check(handler.extract(new ItemStack(Items.STONE, 30), TransferAction.ACT).getCount() == 30, "extracting a stack");
+        check(handler.getStored(new ItemStack(Items.STONE)) == 70, "extracting updates the amount");
+        check(handler.extract(ItemQuery.item(Items.DIRT), 64, TransferAction.ACT).getCount() == 50, "extracting a query");
+        check(handler.size() == 2 && handler.get(1).getResource().isEmpty(), "an emptied type frees its slot");
+        IndexedItemTransferHandler loaded = new IndexedItemTransferHandler(2, 100, 150);
+        loaded.load(handler.save(new CompoundTag()));
+        check(loaded.getStored(new ItemStack(Items.STONE)) == 70 && loaded.getTotalAmount() == 70, "saving and loading");
+        IndexedItemTransferHandler large = new IndexedItemTransferHandler(1, Long.MAX_VALUE, Long.MAX_VALUE);
+        large.insert(ItemKey.of(new ItemStack(Items.STONE)), Long.MAX_VALUE, TransferAction.ACT);
+        ItemStack extracted = large.extract(ItemQuery.item(Items.STONE), Long.MAX_VALUE, TransferAction.ACT);
+        check(large.getStored(new ItemStack(Items.STONE)) == Long.MAX_VALUE - extracted.getCount(), "extracting more than a stack holds keeps the rest");
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("IndexedItemTransferHandler: " + message);
+        }
+    }
+    
+    @Benchmark
+    public long insertSimulate() {
+        return handler.insert(stone, TransferAction.SIMULATE);
+    }
+    
+    @Benchmark
+    public ItemStack insertThenExtract() {
+        handler.insert(stone, TransferAction.ACT);
+        return handler.extract(stone, TransferAction.ACT);
+    }
+    
+    @Benchmark
+    public ItemStack insertThenExtractQuery() {
+        handler.insert(stone, TransferAction.ACT);
+        return handler.extract(stoneQuery, 16, TransferAction.ACT);
+    }
+    
+    @Benchmark
+    public long count() {
+        return handler.getStored(stone);
+    }
+}
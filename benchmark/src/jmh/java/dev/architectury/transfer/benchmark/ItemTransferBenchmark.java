@@ -0,0 +1,80 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.item.simple.SimpleItemTransferHandler;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Insert and extract throughput of {@link SimpleItemTransferHandler} of several sizes.
+ * Every benchmark leaves the handler as it found it, so the measured state does not drift between invocations.
+ */
+@State(Scope.Thread)
+public class ItemTransferBenchmark {
+    @Param({"1", "9", "27", "54"})
+    public int size;
+    
+    private SimpleItemTransferHandler handler;
+    private ItemStack stone;
+    private ItemStack dirt;
+    private List<ItemStack> batch;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        handler = new SimpleItemTransferHandler(size);
+        stone = new ItemStack(Items.STONE, 16);
+        dirt = new ItemStack(Items.DIRT, 16);
+        // half full with another item, so that lookups have to skip slots
+        for (int i = 0; i < size / 2; i++) {
+            handler.container.setItem(i, new ItemStack(Items.COBBLESTONE, 64));
+        }
+        batch = new ArrayList<>();
+        batch.add(stone);
+        batch.add(dirt);
+    }
+    
+    @Benchmark
+    public long insertSimulate() {
+        return handler.insert(stone, TransferAction.SIMULATE);
+    }
+    
+    @Benchmark
+    public ItemStack insertThenExtract() {
+        handler.insert(stone, TransferAction.ACT);
+        return handler.extract(stone, TransferAction.ACT);
+    }
+    
+    @Benchmark
+    public ItemStack extractAnySimulate() {
+        return handler.extractAny(64, TransferAction.SIMULATE);
+    }
+    
+    @Benchmark
+    public long[] insertAllSimulate() {
+        return handler.insertAll(batch, TransferAction.SIMULATE);
+    }
+}
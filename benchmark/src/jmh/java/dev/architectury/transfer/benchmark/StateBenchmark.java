@@ -0,0 +1,66 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.fluid.FluidStack;
+import dev.architectury.transfer.fluid.simple.SimpleFluidTransferHandler;
+import dev.architectury.transfer.item.simple.SimpleItemTransferHandler;
+import dev.architectury.transfer.wrapper.single.SimpleSingleTransferHandler;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluids;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * {@code saveState}/{@code loadState} round trips, which platform transactions do for every handler they touch.
+ */
+@State(Scope.Thread)
+public class StateBenchmark {
+    @Param({"9", "27", "54"})
+    public int size;
+    
+    private SimpleItemTransferHandler items;
+    private SimpleFluidTransferHandler<SimpleSingleTransferHandler<FluidStack>> fluids;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        items = new SimpleItemTransferHandler(size);
+        fluids = SimpleFluidTransferHandler.of(size, FluidStack.bucketAmount() * 8);
+        for (int i = 0; i < size; i += 2) {
+            items.container.setItem(i, new ItemStack(Items.STONE, 32));
+            fluids.set(i, FluidStack.create(Fluids.WATER, FluidStack.bucketAmount()));
+        }
+    }
+    
+    @Benchmark
+    public Object itemRoundTrip() {
+        Object state = items.saveState();
+        items.loadState(state);
+        return state;
+    }
+    
+    @Benchmark
+    public Object fluidRoundTrip() {
+        Object state = fluids.saveState();
+        fluids.loadState(state);
+        return state;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.benchmark;
+
+import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.item.simple.SimpleItemTransferHandler;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of going through deep chains of filtering and forwarding wrappers, as built by repeated
+ * {@code filter(...).onlyInsert()} calls.
+ */
+@State(Scope.Thread)
+public class WrapperChainBenchmark {
+    @Param({"0", "1", "4", "16"})
+    public int depth;
+    
+    private TransferHandler<ItemStack> handler;
+    private ItemStack stone;
+    
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+        TransferHandler<ItemStack> handler = new SimpleItemTransferHandler(27);
+        for (int i = 0; i < depth; i++) {
+            handler = handler.filter(stack -> !stack.is(Items.BEDROCK)).onlyInsert();
+        }
+        this.handler = handler;
+        stone = new ItemStack(Items.STONE, 16);
+    }
+    
+    @Benchmark
+    public long insertSimulate() {
+        return handler.insert(stone, TransferAction.SIMULATE);
+    }
+    
+    @Benchmark
+    public long iterate() {
+        long total = 0;
+        for (ResourceView<ItemStack> view : handler) {
+            total += view.getResource().getCount();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * A query for resources, used with {@link TransferView#extract(ResourceQuery, long, TransferAction)}.
+ * <p>
+ * Unlike a plain {@link Predicate}, a query can tell handlers what it is looking for,
+ * so that exact queries can be answered with a direct lookup instead of testing every resource.
+ *
+ * @param <T> the type of resource
+ */
+public interface ResourceQuery<T> extends Predicate<T> {
+    /**
+     * Returns the key of the only variant matched by this query.
+     *
+     * @return the key, or {@code null} if this query may match more than one variant
+     */
+    @Nullable
+    TransferKey<T> exactKey();
+    
+    /**
+     * Returns a query that matches exactly the given key.
+     *
+     * @param key the key to match
+     * @param <T> the type of resource
+     * @return the query
+     */
+    static <T> ResourceQuery<T> exact(TransferKey<T> key) {
+        return new ResourceQuery<T>() {
+            @Override
+            public TransferKey<T> exactKey() {
+                return key;
+            }
+            
+            @Override
+            public boolean test(T resource) {
+                return key.matches(resource);
+            }
+        };
+    }
+    
+    /**
+     * Returns a query that matches the resources accepted by the given predicate.
+     * Handlers can not optimize these queries, prefer a more specific query when possible.
+     *
+     * @param predicate the predicate
+     * @param <T>       the type of resource
+     * @return the query
+     */
+    static <T> ResourceQuery<T> matching(Predicate<T> predicate) {
+        if (predicate instanceof ResourceQuery) {
+            return (ResourceQuery<T>) predicate;
+        }
+        
+        return new ResourceQuery<T>() {
+            @Override
+            @Nullable
+            public TransferKey<T> exactKey() {
+                return null;
+            }
+            
+            @Override
+            public boolean test(T resource) {
+                return predicate.test(resource);
+            }
+        };
+    }
+}
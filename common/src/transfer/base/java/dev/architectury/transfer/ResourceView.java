@@ -40,6 +40,16 @@ public interface ResourceView<T> extends TransferView<T>, CapacityView<T> {
      */
     T getResource();
     
+    /**
+     * Returns the key of the resource that this view represents.
+     *
+     * @return the key of the resource
+     * @see TransferView#keyOf(Object)
+     */
+    default TransferKey<T> key() {
+        return keyOf(getResource());
+    }
+    
     /**
      * Returns the capacity of this view.
      *
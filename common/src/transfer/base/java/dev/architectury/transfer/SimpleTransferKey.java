@@ -0,0 +1,75 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer;
+
+import java.util.Objects;
+
+/**
+ * The default {@link TransferKey}, a single unit copy of the resource compared with {@link Object#equals(Object)}.
+ *
+ * @param <T> the type of resource
+ * @see TransferView#keyOf(Object)
+ */
+final class SimpleTransferKey<T> implements TransferKey<T> {
+    private final TransferView<T> view;
+    private final T unit;
+    private final boolean blank;
+    
+    SimpleTransferKey(TransferView<T> view, T resource) {
+        this.view = view;
+        this.blank = Objects.equals(resource, view.blank());
+        this.unit = blank ? view.blank() : view.copyWithAmount(resource, 1);
+    }
+    
+    @Override
+    public boolean isBlank() {
+        return blank;
+    }
+    
+    @Override
+    public T toResource(long amount) {
+        if (blank || amount <= 0) return view.blank();
+        return view.copyWithAmount(unit, amount);
+    }
+    
+    @Override
+    public boolean matches(T resource) {
+        if (blank) return Objects.equals(resource, view.blank());
+        return Objects.equals(view.copyWithAmount(resource, 1), unit);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SimpleTransferKey)) return false;
+        SimpleTransferKey<?> other = (SimpleTransferKey<?>) o;
+        return blank == other.blank && Objects.equals(unit, other.unit);
+    }
+    
+    @Override
+    public int hashCode() {
+        return blank ? 0 : Objects.hashCode(unit);
+    }
+    
+    @Override
+    public String toString() {
+        return "SimpleTransferKey[" + (blank ? "blank" : unit) + "]";
+    }
+}
@@ -21,9 +21,13 @@ package dev.architectury.transfer;
 
 import com.google.common.base.Predicates;
 import dev.architectury.transfer.util.SimpleList;
+import dev.architectury.transfer.view.VariantView;
 import dev.architectury.transfer.wrapper.filtering.FilteringTransferHandler;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
@@ -63,6 +67,22 @@ public interface TransferHandler<T> extends TransferView<T>, SimpleList<Resource
     @Override
     ResourceView<T> get(int index);
     
+    /**
+     * Visits every resource of this handler in order, until the visitor returns {@code false}.
+     * Unlike iterating this handler, this does not need to create a view for every resource.
+     * The visited resources are borrowed from the handler, they <b>must not</b> be modified or kept.
+     *
+     * @param visitor the visitor
+     * @return {@code true} if every resource was visited, {@code false} if the visitor stopped early
+     */
+    default boolean scan(ResourceVisitor<T> visitor) {
+        int index = 0;
+        for (ResourceView<T> view : this) {
+            if (!visitor.visit(index++, view.getResource())) return false;
+        }
+        return true;
+    }
+    
     /**
      * Inserts the given resource into a given resource index, returning the amount that was inserted.
      *
@@ -112,6 +132,61 @@ public interface TransferHandler<T> extends TransferView<T>, SimpleList<Resource
         return get(index).extractAny(maxAmount, action);
     }
     
+    /**
+     * Inserts all the given resources, returning the amount that was inserted for each of them,
+     * in the iteration order of the collection.
+     * <p>
+     * The default implementation inserts the resources one by one, implementations that are able to
+     * place the whole batch in a single pass over their contents should override this.
+     * When simulating, the result of a resource may not account for the space taken by the ones before it.
+     *
+     * @param toInsert the resources to insert
+     * @param action   whether to simulate or actually insert the resources
+     * @return the amounts that were inserted, one per resource
+     */
+    default long[] insertAll(Collection<T> toInsert, TransferAction action) {
+        long[] inserted = new long[toInsert.size()];
+        int i = 0;
+        for (T resource : toInsert) {
+            inserted[i++] = insert(resource, action);
+        }
+        return inserted;
+    }
+    
+    /**
+     * Extracts up to {@code maxTypes} different resources matching the predicate, returning the stacks that were extracted.
+     * At most {@code maxAmount} is extracted for each of the resources.
+     * <p>
+     * The default implementation calls {@link #extract(Predicate, long, TransferAction)} once per type,
+     * implementations that are able to collect the whole batch in a single pass over their contents should override this.
+     * Handlers that are not a {@link VariantView} are unable to tell resources apart, and only extract a single type.
+     *
+     * @param toExtract the predicates to use to filter the resources to extract
+     * @param maxAmount the maximum amount to extract for each resource
+     * @param maxTypes  the maximum amount of different resources to extract
+     * @param action    whether to simulate or actually extract the resources
+     * @return the stacks that were extracted, never containing blank stacks unless this handler is not a {@link VariantView}
+     */
+    default List<T> extractMatching(Predicate<T> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+        List<T> extracted = new ArrayList<>();
+        if (maxAmount <= 0 || maxTypes <= 0) return extracted;
+        if (!(this instanceof VariantView)) {
+            extracted.add(extract(toExtract, maxAmount, action));
+            return extracted;
+        }
+        VariantView<T> variants = (VariantView<T>) this;
+        Predicate<T> remaining = toExtract;
+        
+        while (extracted.size() < maxTypes) {
+            T resource = extract(remaining, maxAmount, action);
+            if (variants.getAmount(resource) <= 0) break;
+            extracted.add(resource);
+            remaining = remaining.and(other -> !variants.isSameVariant(resource, other));
+        }
+        
+        return extracted;
+    }
+    
     @Override
     default TransferHandler<T> unmodifiable() {
         return filter(Predicates.alwaysFalse());
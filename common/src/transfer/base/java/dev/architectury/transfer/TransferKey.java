@@ -0,0 +1,54 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer;
+
+/**
+ * An immutable identity of a resource, holding everything about it except its amount.
+ * <p>
+ * The keys of two resources of the same variant are equal, so they can be used in hash based collections.
+ * Keys must be compared with {@link Object#equals(Object)}, only some keys are interned.
+ *
+ * @param <T> the type of resource
+ * @see TransferView#keyOf(Object)
+ */
+public interface TransferKey<T> {
+    /**
+     * Returns whether this is the key of blank resources.
+     *
+     * @return whether this key is blank
+     */
+    boolean isBlank();
+    
+    /**
+     * Creates a new resource of this key.
+     *
+     * @param amount the amount of the resource
+     * @return the new resource
+     */
+    T toResource(long amount);
+    
+    /**
+     * Returns whether the given resource is of this key, regardless of its amount.
+     *
+     * @param resource the resource to test
+     * @return whether the resource matches
+     */
+    boolean matches(T resource);
+}
@@ -46,6 +46,7 @@ public interface TransferView<T> {
     
     /**
      * Extracts the given resource from the handler, returning the stack that was extracted.
+     * The resources tested by the predicate may be borrowed from the handler, they <b>must not</b> be modified or kept.
      *
      * @param toExtract the predicates to use to filter the resources to extract
      * @param maxAmount the maximum amount of resources to extract
@@ -54,6 +55,23 @@ public interface TransferView<T> {
      */
     T extract(Predicate<T> toExtract, long maxAmount, TransferAction action);
     
+    /**
+     * Extracts the resources matched by the given query, returning the stack that was extracted.
+     * Exact queries are extracted directly, other queries fall back to {@link #extract(Predicate, long, TransferAction)}.
+     *
+     * @param query     the query to match the resources with
+     * @param maxAmount the maximum amount of resources to extract
+     * @param action    whether to simulate or actually extract the resource
+     * @return the stack that was extracted
+     */
+    default T extract(ResourceQuery<T> query, long maxAmount, TransferAction action) {
+        TransferKey<T> key = query.exactKey();
+        if (key != null) {
+            return extract(key.toResource(maxAmount), action);
+        }
+        return extract((Predicate<T>) query, maxAmount, action);
+    }
+    
     /**
      * Extracts the any resource from the handler, returning the stack that was extracted.
      *
@@ -82,6 +100,20 @@ public interface TransferView<T> {
      */
     T copyWithAmount(T resource, long amount);
     
+    /**
+     * Returns the {@link TransferKey} of the given resource, identifying it regardless of its amount.
+     * Keys of the same variant are equal, which makes them suitable for comparisons and hash based indexes.
+     * <p>
+     * The default implementation compares single unit copies of the resources with {@link Object#equals(Object)},
+     * views of resources without value equality should override this.
+     *
+     * @param resource the resource
+     * @return the key of the resource
+     */
+    default TransferKey<T> keyOf(T resource) {
+        return new SimpleTransferKey<>(this, resource);
+    }
+    
     /**
      * Returns the saved state of the handler, this method must not be called by the implementation.
      * This method is used to provide support for transactions, which is only used if the handler is
@@ -104,6 +136,16 @@ public interface TransferView<T> {
     @ApiStatus.OverrideOnly
     void loadState(Object state);
     
+    /**
+     * Releases a saved state that will not be loaded anymore, this method must not be called by the implementation.
+     * Handlers that journal their changes while a saved state is held use this to stop journaling.
+     *
+     * @param state the saved state of the handler
+     */
+    @ApiStatus.OverrideOnly
+    default void releaseState(Object state) {
+    }
+    
     default TransferView<T> unmodifiable() {
         return filter(Predicates.alwaysFalse());
     }
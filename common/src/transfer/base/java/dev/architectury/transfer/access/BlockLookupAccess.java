@@ -19,6 +19,9 @@
 
 package dev.architectury.transfer.access;
 
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
 /**
  * An API lookup for blocks.
  *
@@ -36,4 +39,16 @@ public interface BlockLookupAccess<T, Context> extends ApiLookupAccess<T, BlockL
         this.addQueryHandler(registration);
         return this;
     }
+    
+    /**
+     * Creates a cache for querying this lookup at a single position repeatedly.
+     *
+     * @param level the level
+     * @param pos   the position of the block
+     * @return the cache
+     * @see BlockLookupCache
+     */
+    default BlockLookupCache<T, Context> cache(Level level, BlockPos pos) {
+        return BlockLookupCache.create(this, level, pos);
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.access;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link BlockLookup} bound to a single position, remembering the results of previous queries.
+ * <p>
+ * The cached results are dropped when the block entity at the position is removed (this includes
+ * the chunk being unloaded), when the block state at the position changes or when the platform
+ * invalidates a result (e.g. a Forge capability), repeated queries otherwise return the same
+ * instance without querying the lookup again.
+ * <p>
+ * Caches are not thread safe, they are meant to be owned by the block (entity) that queries its neighbours.
+ *
+ * @param <T>       the type of the API
+ * @param <Context> the type of the context
+ */
+public interface BlockLookupCache<T, Context> {
+    static <T, Context> BlockLookupCache<T, Context> create(BlockLookup<T, Context> lookup, Level level, BlockPos pos) {
+        return new BlockLookupCacheImpl<>(lookup, level, pos.immutable());
+    }
+    
+    /**
+     * Returns a callback that drops the results of the cache currently querying its lookup on this thread,
+     * platform lookups register it on the platform objects that can be invalidated.
+     *
+     * @return the callback, or null if no cache is querying
+     */
+    @ApiStatus.Internal
+    @Nullable
+    static Runnable currentInvalidator() {
+        return BlockLookupCacheImpl.currentInvalidator();
+    }
+    
+    /**
+     * Queries the api at the cached position.
+     *
+     * @param context the context
+     * @return the transfer handler, or null if none was found
+     */
+    @Nullable
+    T get(Context context);
+    
+    /**
+     * Drops every cached result, the next query will go through the lookup again.
+     */
+    void invalidate();
+    
+    Level getLevel();
+    
+    BlockPos getPos();
+}
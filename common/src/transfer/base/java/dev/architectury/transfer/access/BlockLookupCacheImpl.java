@@ -0,0 +1,126 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.access;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class BlockLookupCacheImpl<T, Context> implements BlockLookupCache<T, Context> {
+    private final BlockLookup<T, Context> lookup;
+    private final Level level;
+    private final BlockPos pos;
+    private static final ThreadLocal<BlockLookupCacheImpl<?, ?>> QUERYING = new ThreadLocal<>();
+    private final Map<Context, T> results = new HashMap<>();
+    /**
+     * Bumped on every invalidation, so that the invalidators of older results do not drop newer ones.
+     */
+    private int generation;
+    private volatile boolean invalidated;
+    @Nullable
+    private BlockState state;
+    @Nullable
+    private BlockEntity blockEntity;
+    
+    BlockLookupCacheImpl(BlockLookup<T, Context> lookup, Level level, BlockPos pos) {
+        this.lookup = lookup;
+        this.level = level;
+        this.pos = pos;
+    }
+    
+    @Override
+    @Nullable
+    public T get(Context context) {
+        if (!isValid()) {
+            invalidate();
+            if (!level.isLoaded(pos)) {
+                return null;
+            }
+            state = level.getBlockState(pos);
+            blockEntity = state.hasBlockEntity() ? level.getBlockEntity(pos) : null;
+        }
+        
+        T result = results.get(context);
+        if (result == null && !results.containsKey(context)) {
+            BlockLookupCacheImpl<?, ?> previous = QUERYING.get();
+            QUERYING.set(this);
+            try {
+                result = lookup.get(level, pos, state, blockEntity, context);
+            } finally {
+                QUERYING.set(previous);
+            }
+            results.put(context, result);
+        }
+        
+        return result;
+    }
+    
+    @Nullable
+    static Runnable currentInvalidator() {
+        BlockLookupCacheImpl<?, ?> cache = QUERYING.get();
+        if (cache == null) {
+            return null;
+        }
+        int generation = cache.generation;
+        return () -> {
+            if (cache.generation == generation) {
+                cache.invalidated = true;
+            }
+        };
+    }
+    
+    private boolean isValid() {
+        if (state == null || invalidated) {
+            return false;
+        }
+        
+        if (blockEntity != null) {
+            // Block entities are marked as removed when they are replaced or their chunk unloads,
+            // and follow the block state of their position otherwise.
+            return !blockEntity.isRemoved() && blockEntity.getBlockState() == state;
+        }
+        
+        return level.isLoaded(pos) && level.getBlockState(pos) == state;
+    }
+    
+    @Override
+    public void invalidate() {
+        generation++;
+        invalidated = false;
+        results.clear();
+        state = null;
+        blockEntity = null;
+    }
+    
+    @Override
+    public Level getLevel() {
+        return level;
+    }
+    
+    @Override
+    public BlockPos getPos() {
+        return pos;
+    }
+}
@@ -33,12 +33,24 @@ import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 class SimpleBlockLookupRegistration<T, Context> implements BlockLookupRegistration<T, Context>, BlockLookup<T, Context> {
+    private static final BlockAccessProvider<?, ?, ?>[] EMPTY = new BlockAccessProvider[0];
     private final Multimap<Block, BlockAccessProvider<T, @Nullable BlockEntity, Context>> blocksMap = Multimaps.newMultimap(new Reference2ObjectOpenHashMap<>(), ArrayList::new);
-    private final List<BlockAccessProvider<T, @Nullable BlockEntity, Context>> fallback = new ArrayList<>();
+    private final List<FallbackProvider<T, Context>> fallback = new ArrayList<>();
+    /**
+     * Dispatch tables built lazily from the registrations above, so a query only walks the providers
+     * that can answer for its block and block entity type. Cleared whenever a new provider is registered.
+     */
+    private final Map<Block, BlockAccessProvider<T, @Nullable BlockEntity, Context>[]> blockTable = new ConcurrentHashMap<>();
+    private final Map<BlockEntityType<?>, BlockAccessProvider<T, @Nullable BlockEntity, Context>[]> blockEntityTable = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile BlockAccessProvider<T, @Nullable BlockEntity, Context>[] noBlockEntityTable;
     
     public static <T, Context> SimpleBlockLookupRegistration<T, Context> create() {
         return new SimpleBlockLookupRegistration<>();
@@ -49,7 +61,8 @@ class SimpleBlockLookupRegistration<T, Context> implements BlockLookupRegistrati
     
     @Override
     public boolean register(ResourceLocation id, BlockAccessProvider<T, @Nullable BlockEntity, Context> provider) {
-        fallback.add(provider);
+        fallback.add(new FallbackProvider<>(null, provider));
+        invalidate();
         return true;
     }
     
@@ -58,19 +71,16 @@ class SimpleBlockLookupRegistration<T, Context> implements BlockLookupRegistrati
         for (Block block : blocks) {
             blocksMap.put(block, provider);
         }
+        invalidate();
         return true;
     }
     
     @Override
     public <B extends BlockEntity> boolean registerForBlockEntities(ResourceLocation id, BlockAccessProvider<T, B, Context> provider, BlockEntityType<B>... blockEntityTypes) {
-        Set<BlockEntityType<B>> set = ReferenceOpenHashSet.of(blockEntityTypes);
-        return register(id, (level, pos, state, blockEntity, context) -> {
-            if (blockEntity != null && set.contains(blockEntity.getType())) {
-                return provider.get(level, pos, state, (B) blockEntity, context);
-            }
-            
-            return null;
-        });
+        Set<BlockEntityType<?>> set = new ReferenceOpenHashSet<>(blockEntityTypes);
+        fallback.add(new FallbackProvider<>(set, (BlockAccessProvider<T, @Nullable BlockEntity, Context>) provider));
+        invalidate();
+        return true;
     }
     
     @Override
@@ -80,6 +90,56 @@ class SimpleBlockLookupRegistration<T, Context> implements BlockLookupRegistrati
         }, blockEntityTypes);
     }
     
+    private void invalidate() {
+        blockTable.clear();
+        blockEntityTable.clear();
+        noBlockEntityTable = null;
+    }
+    
+    private BlockAccessProvider<T, @Nullable BlockEntity, Context>[] getBlockProviders(Block block) {
+        BlockAccessProvider<T, @Nullable BlockEntity, Context>[] providers = blockTable.get(block);
+        if (providers == null) {
+            providers = toArray(blocksMap.get(block));
+            blockTable.put(block, providers);
+        }
+        return providers;
+    }
+    
+    private BlockAccessProvider<T, @Nullable BlockEntity, Context>[] getFallbackProviders(@Nullable BlockEntity blockEntity) {
+        if (blockEntity == null) {
+            BlockAccessProvider<T, @Nullable BlockEntity, Context>[] providers = noBlockEntityTable;
+            if (providers == null) {
+                providers = compileFallback(null);
+                noBlockEntityTable = providers;
+            }
+            return providers;
+        }
+        BlockEntityType<?> type = blockEntity.getType();
+        BlockAccessProvider<T, @Nullable BlockEntity, Context>[] providers = blockEntityTable.get(type);
+        if (providers == null) {
+            providers = compileFallback(type);
+            blockEntityTable.put(type, providers);
+        }
+        return providers;
+    }
+    
+    private BlockAccessProvider<T, @Nullable BlockEntity, Context>[] compileFallback(@Nullable BlockEntityType<?> type) {
+        List<BlockAccessProvider<T, @Nullable BlockEntity, Context>> providers = new ArrayList<>();
+        for (FallbackProvider<T, Context> provider : fallback) {
+            if (provider.types == null || (type != null && provider.types.contains(type))) {
+                providers.add(provider.provider);
+            }
+        }
+        return toArray(providers);
+    }
+    
+    private static <T, Context> BlockAccessProvider<T, @Nullable BlockEntity, Context>[] toArray(Collection<BlockAccessProvider<T, @Nullable BlockEntity, Context>> providers) {
+        if (providers.isEmpty()) {
+            return (BlockAccessProvider<T, @Nullable BlockEntity, Context>[]) EMPTY;
+        }
+        return providers.toArray((BlockAccessProvider<T, @Nullable BlockEntity, Context>[]) EMPTY);
+    }
+    
     @Override
     @Nullable
     public T get(Level level, BlockPos pos, Context context) {
@@ -95,13 +155,13 @@ class SimpleBlockLookupRegistration<T, Context> implements BlockLookupRegistrati
     @Nullable
     public T get(Level level, BlockPos pos, BlockState state, @Nullable BlockEntity blockEntity, Context context) {
         if (blockEntity == null) blockEntity = level.getBlockEntity(pos);
-        for (BlockAccessProvider<T, @Nullable BlockEntity, Context> provider : blocksMap.get(state.getBlock())) {
+        for (BlockAccessProvider<T, @Nullable BlockEntity, Context> provider : getBlockProviders(state.getBlock())) {
             T result = provider.get(level, pos, state, blockEntity, context);
             if (result != null) {
                 return result;
             }
         }
-        for (BlockAccessProvider<T, BlockEntity, Context> provider : fallback) {
+        for (BlockAccessProvider<T, @Nullable BlockEntity, Context> provider : getFallbackProviders(blockEntity)) {
             T result = provider.get(level, pos, state, blockEntity, context);
             if (result != null) {
                 return result;
@@ -109,4 +169,15 @@ class SimpleBlockLookupRegistration<T, Context> implements BlockLookupRegistrati
         }
         return null;
     }
+    
+    private static class FallbackProvider<T, Context> {
+        @Nullable
+        private final Set<BlockEntityType<?>> types;
+        private final BlockAccessProvider<T, @Nullable BlockEntity, Context> provider;
+        
+        private FallbackProvider(@Nullable Set<BlockEntityType<?>> types, BlockAccessProvider<T, @Nullable BlockEntity, Context> provider) {
+            this.types = types;
+            this.provider = provider;
+        }
+    }
 }
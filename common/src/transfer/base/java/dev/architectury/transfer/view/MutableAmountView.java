@@ -0,0 +1,37 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.view;
+
+/**
+ * A view whose resource amount can be changed in place, without creating a new resource.
+ * <p>
+ * Implemented by slots that own their resource, so that same variant inserts and partial extracts
+ * don't need to copy the resource (and its NBT) every time.
+ */
+public interface MutableAmountView {
+    /**
+     * Changes the amount of the current resource in place.
+     * The caller is responsible for keeping the amount within the capacity, and above zero.
+     *
+     * @param delta the amount to add, negative to remove
+     * @return whether the amount was changed, {@code false} if the current resource can not be mutated
+     */
+    boolean growAmount(long delta);
+}
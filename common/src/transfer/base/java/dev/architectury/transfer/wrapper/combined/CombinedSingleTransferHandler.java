@@ -20,16 +20,22 @@
 package dev.architectury.transfer.wrapper.combined;
 
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
+import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * A {@link TransferHandler} that combines multiple {@link SingleTransferHandler}s.<br>
  * This is faster than using {@link CombinedTransferHandler} directly, as the size of
- * each {@link SingleTransferHandler} is known in advance.
+ * each {@link SingleTransferHandler} is known in advance.<br>
+ * The contents are walked by index, so {@link #getContents()} should return a random access list.
  *
  * @param <T> the type of resource
  */
@@ -39,6 +45,11 @@ public interface CombinedSingleTransferHandler<T, P extends SingleTransferHandle
         return (Iterable<TransferHandler<T>>) (Iterable<? super P>) getContents();
     }
     
+    /**
+     * Returns the handlers combined by this handler, this should be a random access list.
+     *
+     * @return the handlers
+     */
     List<P> getContents();
     
     @Override
@@ -55,4 +66,154 @@ public interface CombinedSingleTransferHandler<T, P extends SingleTransferHandle
     default Iterator<ResourceView<T>> iterator() {
         return (Iterator<ResourceView<T>>) (Iterator<? extends ResourceView<T>>) getContents().iterator();
     }
+    
+    @Override
+    default boolean scan(ResourceVisitor<T> visitor) {
+        List<P> contents = getContents();
+        for (int i = 0, size = contents.size(); i < size; i++) {
+            if (!visitor.visit(i, contents.get(i).getResource())) return false;
+        }
+        return true;
+    }
+    
+    @Override
+    default long insert(T toInsert, TransferAction action) {
+        List<P> contents = getContents();
+        long toInsertAmount = getAmount(toInsert);
+        long amount = toInsertAmount;
+        for (int i = 0, size = contents.size(); i < size && amount > 0; i++) {
+            amount -= contents.get(i).insert(copyWithAmount(toInsert, amount), action);
+        }
+        return toInsertAmount - amount;
+    }
+    
+    @Override
+    default T extract(T toExtract, TransferAction action) {
+        long toExtractAmount = getAmount(toExtract);
+        if (toExtractAmount == 0) return blank();
+        else if (toExtractAmount <= 0)
+            throw new IllegalArgumentException("Cannot extract negative amount, got " + toExtractAmount);
+        List<P> contents = getContents();
+        long extractedAmount = 0;
+        
+        for (int i = 0, size = contents.size(); i < size && extractedAmount < toExtractAmount; i++) {
+            extractedAmount += getAmount(contents.get(i).extract(copyWithAmount(toExtract, toExtractAmount - extractedAmount), action));
+        }
+        
+        return copyWithAmount(toExtract, extractedAmount);
+    }
+    
+    @Override
+    default T extract(Predicate<T> toExtract, long maxAmount, TransferAction action) {
+        if (maxAmount == 0) return blank();
+        else if (maxAmount <= 0)
+            throw new IllegalArgumentException("Cannot extract negative amount, got " + maxAmount);
+        List<P> contents = getContents();
+        long extractedAmount = 0;
+        T type = null;
+        
+        for (int i = 0, size = contents.size(); i < size && extractedAmount < maxAmount; i++) {
+            P part = contents.get(i);
+            T extracted;
+            
+            if (type == null) {
+                extracted = part.extract(toExtract, maxAmount - extractedAmount, action);
+                if (getAmount(extracted) > 0) {
+                    type = extracted;
+                }
+            } else {
+                extracted = part.extract(copyWithAmount(type, maxAmount - extractedAmount), action);
+            }
+            
+            extractedAmount += getAmount(extracted);
+        }
+        
+        return type == null ? blank() : copyWithAmount(type, extractedAmount);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This walks the contents once for the whole batch, every slot accepts at most one of the resources,
+     * so simulated results never count the same space twice.
+     */
+    @Override
+    default long[] insertAll(Collection<T> toInsert, TransferAction action) {
+        List<T> resources = toInsert instanceof List ? (List<T>) toInsert : new ArrayList<>(toInsert);
+        long[] remaining = new long[resources.size()];
+        long[] inserted = new long[resources.size()];
+        int pending = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = getAmount(resources.get(i));
+            if (remaining[i] > 0) pending++;
+        }
+        
+        List<P> contents = getContents();
+        for (int index = 0, size = contents.size(); index < size && pending > 0; index++) {
+            P slot = contents.get(index);
+            T current = slot.getResource();
+            boolean empty = slot.getAmount(current) <= 0;
+            
+            for (int i = 0; i < remaining.length; i++) {
+                if (remaining[i] <= 0) continue;
+                T resource = resources.get(i);
+                if (!empty && !isSameVariant(current, resource)) continue;
+                long amount = slot.insert(copyWithAmount(resource, remaining[i]), action);
+                if (amount > 0) {
+                    remaining[i] -= amount;
+                    inserted[i] += amount;
+                    if (remaining[i] <= 0) pending--;
+                    break;
+                }
+            }
+        }
+        
+        return inserted;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This walks the contents once for the whole batch.
+     */
+    @Override
+    default List<T> extractMatching(Predicate<T> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+        List<T> types = new ArrayList<>();
+        List<T> extracted = new ArrayList<>();
+        if (maxAmount <= 0 || maxTypes <= 0) return extracted;
+        long[] amounts = new long[maxTypes];
+        
+        List<P> contents = getContents();
+        for (int index = 0, size = contents.size(); index < size; index++) {
+            P slot = contents.get(index);
+            T current = slot.getResource();
+            if (slot.getAmount(current) <= 0) continue;
+            int type = -1;
+            for (int i = 0; i < types.size(); i++) {
+                if (isSameVariant(types.get(i), current)) {
+                    type = i;
+                    break;
+                }
+            }
+            if (type == -1) {
+                if (types.size() >= maxTypes || !toExtract.test(current)) continue;
+                // Keep a detached copy, the slot may reuse its resource once extracted from
+                T template = copyWithAmount(current, 1);
+                long amount = getAmount(slot.extract(copyWithAmount(current, maxAmount), action));
+                if (amount > 0) {
+                    amounts[types.size()] = amount;
+                    types.add(template);
+                }
+            } else if (amounts[type] < maxAmount) {
+                amounts[type] += getAmount(slot.extract(copyWithAmount(current, maxAmount - amounts[type]), action));
+            }
+        }
+        
+        for (int i = 0; i < types.size(); i++) {
+            if (amounts[i] > 0) {
+                extracted.add(copyWithAmount(types.get(i), amounts[i]));
+            }
+        }
+        return extracted;
+    }
 }
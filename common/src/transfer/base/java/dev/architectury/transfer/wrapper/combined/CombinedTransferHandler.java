@@ -22,6 +22,7 @@ package dev.architectury.transfer.wrapper.combined;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Streams;
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 import dev.architectury.transfer.view.VariantView;
@@ -43,6 +44,20 @@ public interface CombinedTransferHandler<T> extends TransferHandler<T>, VariantV
         return Iterables.concat(getHandlers()).iterator();
     }
     
+    @Override
+    default boolean scan(ResourceVisitor<T> visitor) {
+        int[] offset = {0};
+        for (TransferHandler<T> handler : getHandlers()) {
+            int base = offset[0];
+            boolean completed = handler.scan((index, resource) -> {
+                offset[0] = base + index + 1;
+                return visitor.visit(base + index, resource);
+            });
+            if (!completed) return false;
+        }
+        return true;
+    }
+    
     @Override
     @Deprecated
     default int size() {
@@ -114,6 +129,9 @@ public interface CombinedTransferHandler<T> extends TransferHandler<T>, VariantV
             
             if (type == null) {
                 extracted = part.extract(toExtract, maxAmount - extractedAmount, action);
+                if (getAmount(extracted) > 0) {
+                    type = extracted;
+                }
             } else {
                 extracted = part.extract(copyWithAmount(type, maxAmount - extractedAmount), action);
             }
@@ -150,4 +168,16 @@ public interface CombinedTransferHandler<T> extends TransferHandler<T>, VariantV
             throw new IllegalArgumentException("Invalid state type: " + state.getClass());
         }
     }
+    
+    @Override
+    default void releaseState(Object state) {
+        if (state instanceof Object[]) {
+            int i = 0;
+            for (TransferHandler<T> handler : getHandlers()) {
+                handler.releaseState(((Object[]) state)[i++]);
+            }
+        } else {
+            throw new IllegalArgumentException("Invalid state type: " + state.getClass());
+        }
+    }
 }
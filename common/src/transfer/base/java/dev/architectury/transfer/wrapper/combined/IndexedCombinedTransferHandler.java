@@ -0,0 +1,169 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.wrapper.combined;
+
+import dev.architectury.transfer.ResizableTransferHandler;
+import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.TransferHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A {@link CombinedTransferHandler} with cheap indexed access.<br>
+ * The first index of every handler is cached in an array of offsets, so {@link #size()} is constant
+ * and {@link #get(int)} is a binary search, instead of asking every handler for its size on each call.
+ * <p>
+ * The offsets are trusted until the size version of this handler changes, which sums up the calls to
+ * {@link #invalidateOffsets()} and the size versions of the {@link ResizableTransferHandler}s combined.
+ * Any other handler is expected to keep a fixed size, call {@link #invalidateOffsets()} when one of them is resized.
+ *
+ * @param <T> the type of resource
+ */
+public abstract class IndexedCombinedTransferHandler<T> implements CombinedTransferHandler<T>, ResizableTransferHandler<T> {
+    private final List<TransferHandler<T>> handlers;
+    /**
+     * {@code offsets[i]} is the first index of handler {@code i}, {@code offsets[handlers.size()]} is the total size.
+     */
+    @Nullable
+    private int[] offsets;
+    /**
+     * The handlers that report their size changes, the others have a fixed size.
+     */
+    private final ResizableTransferHandler<?>[] resizable;
+    private int invalidations;
+    /**
+     * The size version the offsets were computed at.
+     */
+    private int offsetsVersion;
+    
+    protected IndexedCombinedTransferHandler(List<? extends TransferHandler<T>> handlers) {
+        this.handlers = Collections.unmodifiableList(new ArrayList<>(handlers));
+        List<ResizableTransferHandler<?>> resizable = new ArrayList<>();
+        for (TransferHandler<T> handler : this.handlers) {
+            if (handler instanceof ResizableTransferHandler) {
+                resizable.add((ResizableTransferHandler<?>) handler);
+            }
+        }
+        this.resizable = resizable.toArray(new ResizableTransferHandler<?>[0]);
+    }
+    
+    @Override
+    public List<TransferHandler<T>> getHandlers() {
+        return handlers;
+    }
+    
+    /**
+     * Marks the cached offsets as outdated, to be called when the size of any of the handlers changes.
+     */
+    public void invalidateOffsets() {
+        this.offsets = null;
+        this.invalidations++;
+    }
+    
+    @Override
+    public int getSizeVersion() {
+        // size versions only ever grow, so their sum changes whenever one of them does
+        int version = invalidations;
+        for (ResizableTransferHandler<?> handler : resizable) {
+            version += handler.getSizeVersion();
+        }
+        return version;
+    }
+    
+    private int[] getOffsets() {
+        int[] offsets = this.offsets;
+        int version = resizable.length == 0 ? invalidations : getSizeVersion();
+        if (offsets == null || version != offsetsVersion) {
+            offsets = new int[handlers.size() + 1];
+            for (int i = 0; i < handlers.size(); i++) {
+                offsets[i + 1] = offsets[i] + handlers.get(i).size();
+            }
+            this.offsets = offsets;
+            this.offsetsVersion = version;
+        }
+        return offsets;
+    }
+    
+    /**
+     * Returns the index of the handler containing the given index.
+     */
+    private int handlerIndex(int[] offsets, int index) {
+        if (index < 0 || index >= offsets[offsets.length - 1]) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds");
+        }
+        int found = Arrays.binarySearch(offsets, 0, offsets.length - 1, index);
+        if (found < 0) {
+            return -found - 2;
+        }
+        // skip empty handlers sharing the same offset
+        while (found + 1 < offsets.length - 1 && offsets[found + 1] == index) {
+            found++;
+        }
+        return found;
+    }
+    
+    private <R> R resolve(int index, Accessor<T, R> accessor) {
+        int[] offsets = getOffsets();
+        int handler = handlerIndex(offsets, index);
+        TransferHandler<T> child = handlers.get(handler);
+        return accessor.access(child, index - offsets[handler]);
+    }
+    
+    @Override
+    public int size() {
+        return getOffsets()[handlers.size()];
+    }
+    
+    @Override
+    public ResourceView<T> get(int index) {
+        return resolve(index, TransferHandler::get);
+    }
+    
+    @Override
+    public long insertAt(int index, T toInsert, TransferAction action) {
+        return resolve(index, (child, local) -> child.insertAt(local, toInsert, action));
+    }
+    
+    @Override
+    public T extractAt(int index, T toExtract, TransferAction action) {
+        return resolve(index, (child, local) -> child.extractAt(local, toExtract, action));
+    }
+    
+    @Override
+    public T extractAt(int index, Predicate<T> toExtract, long maxAmount, TransferAction action) {
+        return resolve(index, (child, local) -> child.extractAt(local, toExtract, maxAmount, action));
+    }
+    
+    @Override
+    public T extractAt(int index, long maxAmount, TransferAction action) {
+        return resolve(index, (child, local) -> child.extractAt(local, maxAmount, action));
+    }
+    
+    @FunctionalInterface
+    private interface Accessor<T, R> {
+        R access(TransferHandler<T> handler, int index);
+    }
+}
@@ -20,9 +20,13 @@
 package dev.architectury.transfer.wrapper.filtering;
 
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 import dev.architectury.transfer.wrapper.forwarding.ForwardingTransferHandler;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
 
 public interface FilteringTransferHandler<T> extends ForwardingTransferHandler<T>, FilteringTransferView<T> {
@@ -49,4 +53,32 @@ public interface FilteringTransferHandler<T> extends ForwardingTransferHandler<T
     default ResourceView<T> forwardResource(ResourceView<T> resource) {
         return ForwardingTransferHandler.super.forwardResource(resource).filter(this::canInsert, this::canExtract);
     }
+    
+    @Override
+    default long[] insertAll(Collection<T> toInsert, TransferAction action) {
+        List<T> accepted = new ArrayList<>(toInsert.size());
+        for (T resource : toInsert) {
+            if (canInsert(resource)) {
+                accepted.add(resource);
+            }
+        }
+        if (accepted.size() == toInsert.size()) {
+            return ForwardingTransferHandler.super.insertAll(toInsert, action);
+        }
+        long[] acceptedInserted = ForwardingTransferHandler.super.insertAll(accepted, action);
+        long[] inserted = new long[toInsert.size()];
+        int i = 0, j = 0;
+        for (T resource : toInsert) {
+            if (j < accepted.size() && accepted.get(j) == resource) {
+                inserted[i] = acceptedInserted[j++];
+            }
+            i++;
+        }
+        return inserted;
+    }
+    
+    @Override
+    default List<T> extractMatching(Predicate<T> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+        return ForwardingTransferHandler.super.extractMatching(toExtract.and(this::canExtract), maxAmount, maxTypes, action);
+    }
 }
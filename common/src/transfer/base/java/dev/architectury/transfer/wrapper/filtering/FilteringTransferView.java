@@ -19,7 +19,9 @@
 
 package dev.architectury.transfer.wrapper.filtering;
 
+import dev.architectury.transfer.ResourceQuery;
 import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.TransferKey;
 import dev.architectury.transfer.TransferView;
 import dev.architectury.transfer.view.ModifiableView;
 import dev.architectury.transfer.wrapper.forwarding.ForwardingTransferView;
@@ -68,4 +70,14 @@ public interface FilteringTransferView<T> extends ForwardingTransferView<T>, Mod
     default T extract(Predicate<T> toExtract, long maxAmount, TransferAction action) {
         return ForwardingTransferView.super.extract(toExtract.and(this::canExtract), maxAmount, action);
     }
+    
+    @Override
+    default T extract(ResourceQuery<T> query, long maxAmount, TransferAction action) {
+        // Go through the filtered extract methods, the exact key is still extracted directly
+        TransferKey<T> key = query.exactKey();
+        if (key != null) {
+            return extract(key.toResource(maxAmount), action);
+        }
+        return extract((Predicate<T>) query, maxAmount, action);
+    }
 }
@@ -21,9 +21,14 @@ package dev.architectury.transfer.wrapper.forwarding;
 
 import com.google.common.collect.Iterators;
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
+import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 
 public interface ForwardingTransferHandler<T> extends TransferHandler<T>, ForwardingTransferView<T> {
     @Override
@@ -38,6 +43,12 @@ public interface ForwardingTransferHandler<T> extends TransferHandler<T>, Forwar
         return Iterators.transform(forwardingTo().iterator(), this::forwardResource);
     }
     
+    @Override
+    default boolean scan(ResourceVisitor<T> visitor) {
+        // Forwarded views only restrict operations, the resources themselves are the same
+        return forwardingTo().scan(visitor);
+    }
+    
     @Override
     @Deprecated
     default int size() {
@@ -49,4 +60,14 @@ public interface ForwardingTransferHandler<T> extends TransferHandler<T>, Forwar
     default ResourceView<T> get(int index) {
         return forwardResource(forwardingTo().get(index));
     }
+    
+    @Override
+    default long[] insertAll(Collection<T> toInsert, TransferAction action) {
+        return forwardingTo().insertAll(toInsert, action);
+    }
+    
+    @Override
+    default List<T> extractMatching(Predicate<T> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+        return forwardingTo().extractMatching(toExtract, maxAmount, maxTypes, action);
+    }
 }
@@ -19,7 +19,9 @@
 
 package dev.architectury.transfer.wrapper.forwarding;
 
+import dev.architectury.transfer.ResourceQuery;
 import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.TransferKey;
 import dev.architectury.transfer.TransferView;
 
 import java.util.function.Predicate;
@@ -37,6 +39,11 @@ public interface ForwardingTransferView<T> extends TransferView<T> {
         return forwardingTo().extract(toExtract, maxAmount, action);
     }
     
+    @Override
+    default T extract(ResourceQuery<T> query, long maxAmount, TransferAction action) {
+        return forwardingTo().extract(query, maxAmount, action);
+    }
+    
     @Override
     default T extract(T toExtract, TransferAction action) {
         return forwardingTo().extract(toExtract, action);
@@ -52,6 +59,11 @@ public interface ForwardingTransferView<T> extends TransferView<T> {
         return forwardingTo().copyWithAmount(resource, amount);
     }
     
+    @Override
+    default TransferKey<T> keyOf(T resource) {
+        return forwardingTo().keyOf(resource);
+    }
+    
     @Override
     default Object saveState() {
         return forwardingTo().saveState();
@@ -61,4 +73,9 @@ public interface ForwardingTransferView<T> extends TransferView<T> {
     default void loadState(Object state) {
         forwardingTo().loadState(state);
     }
+    
+    @Override
+    default void releaseState(Object state) {
+        forwardingTo().releaseState(state);
+    }
 }
@@ -20,6 +20,7 @@
 package dev.architectury.transfer.wrapper.single;
 
 import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.view.MutableAmountView;
 
 public interface SimpleSingleTransferHandler<T> extends SingleTransferHandler<T> {
     @Override
@@ -29,7 +30,8 @@ public interface SimpleSingleTransferHandler<T> extends SingleTransferHandler<T>
     
     @Override
     default void loadState(Object state) {
-        setResource((T) state);
+        // Copy again, the restored resource may be mutated in place afterwards
+        setResource(copy((T) state));
     }
     
     void setResource(T resource);
@@ -51,7 +53,7 @@ public interface SimpleSingleTransferHandler<T> extends SingleTransferHandler<T>
             if (inserted > 0 && action == TransferAction.ACT) {
                 if (isEmpty) {
                     setResource(copyWithAmount(toInsert, inserted));
-                } else {
+                } else if (!tryGrowAmount(inserted)) {
                     setResource(copyWithAmount(resource, currentAmount + inserted));
                 }
             }
@@ -66,10 +68,11 @@ public interface SimpleSingleTransferHandler<T> extends SingleTransferHandler<T>
     default T extract(T toExtract, TransferAction action) {
         T resource = getResource();
         if (!isSameVariant(resource, toExtract)) return blank();
-        long extracted = Math.min(getAmount(toExtract), getAmount(resource));
+        long currentAmount = getAmount(resource);
+        long extracted = Math.min(getAmount(toExtract), currentAmount);
         if (extracted > 0) {
-            if (action == TransferAction.ACT) {
-                setResource(copyWithAmount(resource, getAmount(resource) - extracted));
+            if (action == TransferAction.ACT && (extracted >= currentAmount || !tryGrowAmount(-extracted))) {
+                setResource(copyWithAmount(resource, currentAmount - extracted));
             }
             
             return copyWithAmount(toExtract, extracted);
@@ -77,4 +80,14 @@ public interface SimpleSingleTransferHandler<T> extends SingleTransferHandler<T>
         
         return blank();
     }
+    
+    /**
+     * Changes the amount of the current resource in place if this handler is a {@link MutableAmountView}.
+     *
+     * @param delta the amount to add, negative to remove
+     * @return whether the amount was changed in place
+     */
+    private boolean tryGrowAmount(long delta) {
+        return this instanceof MutableAmountView && ((MutableAmountView) this).growAmount(delta);
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.energy;
+
+/**
+ * Decides how energy is split between the targets of {@link EnergyTransfer#distribute}.
+ * <p>
+ * A policy never simulates, it offers energy to the targets through the given {@link Sink}
+ * and keeps track of what was accepted, so every target is asked at most twice per distribution.
+ */
+@FunctionalInterface
+public interface DistributionPolicy {
+    /**
+     * Splits the energy as evenly as possible, what a target refuses is offered to the ones after it.
+     */
+    DistributionPolicy EVEN = (amount, targets, sink) -> {
+        long remaining = amount;
+        for (int i = 0; i < targets && remaining > 0; i++) {
+            int left = targets - i;
+            remaining -= sink.insert(i, (remaining + left - 1) / left);
+        }
+        // top up the first targets with what the last ones refused
+        for (int i = 0; i < targets && remaining > 0; i++) {
+            remaining -= sink.insert(i, remaining);
+        }
+        return amount - remaining;
+    };
+    
+    /**
+     * Fills the targets in order, the first target gets as much as it accepts.
+     */
+    DistributionPolicy PRIORITY = (amount, targets, sink) -> {
+        long remaining = amount;
+        for (int i = 0; i < targets && remaining > 0; i++) {
+            remaining -= sink.insert(i, remaining);
+        }
+        return amount - remaining;
+    };
+    
+    /**
+     * Creates a policy that fills the targets in order, starting with the next target on every distribution.
+     * The policy is stateful, use one instance per source.
+     *
+     * @return the round-robin policy
+     */
+    static DistributionPolicy roundRobin() {
+        return new DistributionPolicy() {
+            private int next;
+            
+            @Override
+            public long distribute(long amount, int targets, Sink sink) {
+                if (targets <= 0) return 0;
+                int start = Math.floorMod(next, targets);
+                next = start + 1;
+                long remaining = amount;
+                for (int i = 0; i < targets && remaining > 0; i++) {
+                    remaining -= sink.insert((start + i) % targets, remaining);
+                }
+                return amount - remaining;
+            }
+        };
+    }
+    
+    /**
+     * Distributes the energy.
+     *
+     * @param amount  the energy available
+     * @param targets the amount of targets
+     * @param sink    inserts energy into a target
+     * @return the amount of energy that was accepted by the targets
+     */
+    long distribute(long amount, int targets, Sink sink);
+    
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * Inserts energy into a target.
+         *
+         * @param target the index of the target
+         * @param amount the amount to insert
+         * @return the amount that was inserted
+         */
+        long insert(int target, long amount);
+    }
+}
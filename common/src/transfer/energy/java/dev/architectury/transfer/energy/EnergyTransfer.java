@@ -26,6 +26,8 @@ import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
 import net.minecraft.core.Direction;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 public class EnergyTransfer {
     public static final BlockLookupAccess<SingleTransferHandler<Long>, Direction> BLOCK = BlockLookupAccess.create();
     
@@ -58,4 +60,27 @@ public class EnergyTransfer {
     public static Object unwrap(@Nullable SingleTransferHandler<Long> handler) {
         throw new AssertionError();
     }
+    
+    /**
+     * Moves energy from a source into many targets in a single operation.<br>
+     * The source is only simulated once and the policy is run once,
+     * on Fabric the whole distribution happens in one transaction.
+     * On Forge the policy plans against simulated targets, the source is extracted from exactly what was planned
+     * and the plan is then inserted into the targets, energy is never inserted back into the source.
+     *
+     * @param source   the handler to extract energy from
+     * @param targets  the handlers to insert energy into
+     * @param maxTotal the maximum amount of energy to move in total
+     * @param policy   how the energy is split between the targets
+     * @return the amount of energy that was moved
+     */
+    public static long distribute(SingleTransferHandler<Long> source, List<? extends SingleTransferHandler<Long>> targets, long maxTotal, DistributionPolicy policy) {
+        if (maxTotal <= 0 || targets.isEmpty()) return 0;
+        return distributeImpl(source, targets, maxTotal, policy);
+    }
+    
+    @ExpectPlatform
+    private static long distributeImpl(SingleTransferHandler<Long> source, List<? extends SingleTransferHandler<Long>> targets, long maxTotal, DistributionPolicy policy) {
+        throw new AssertionError();
+    }
 }
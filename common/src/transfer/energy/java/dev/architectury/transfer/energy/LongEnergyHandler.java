@@ -0,0 +1,144 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.energy;
+
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link EnergyTransferHandler} that works with primitive {@code long}s.<br>
+ * The generic {@link SingleTransferHandler} methods are implemented on top of the primitive ones,
+ * prefer calling the primitive methods to avoid boxing every amount that is transferred.
+ *
+ * @see #of(SingleTransferHandler) to adapt any energy handler
+ */
+public interface LongEnergyHandler extends EnergyTransferHandler {
+    /**
+     * Returns a primitive view of the given energy handler, the handler itself if it is already one.
+     *
+     * @param handler the energy handler
+     * @return the primitive energy handler, or {@code null} if {@code handler} is null
+     */
+    @Nullable
+    static LongEnergyHandler of(@Nullable SingleTransferHandler<Long> handler) {
+        if (handler == null || handler instanceof LongEnergyHandler) return (LongEnergyHandler) handler;
+        return new LongEnergyHandlerAdapter(handler);
+    }
+    
+    /**
+     * Returns the amount of energy stored.
+     *
+     * @return the amount of energy stored
+     */
+    long getEnergy();
+    
+    /**
+     * Returns the maximum amount of energy that can be stored.
+     *
+     * @return the capacity
+     */
+    long getEnergyCapacity();
+    
+    /**
+     * Inserts up to the given amount of energy, returning the amount that was inserted.
+     *
+     * @param maxAmount the amount of energy to insert
+     * @param action    whether to simulate or actually insert the energy
+     * @return the amount that was inserted
+     */
+    long insert(long maxAmount, TransferAction action);
+    
+    /**
+     * Extracts up to the given amount of energy, returning the amount that was extracted.
+     *
+     * @param maxAmount the amount of energy to extract
+     * @param action    whether to simulate or actually extract the energy
+     * @return the amount that was extracted
+     */
+    long extract(long maxAmount, TransferAction action);
+    
+    /**
+     * Returns whether the given amount of energy may be inserted, the primitive counterpart of {@link #canInsert(Long)}.
+     * Override this one rather than the boxed one.
+     *
+     * @param toInsert the amount of energy to insert
+     * @return whether the energy may be inserted
+     */
+    default boolean canInsert(long toInsert) {
+        return true;
+    }
+    
+    /**
+     * Returns whether the given amount of energy may be extracted, the primitive counterpart of {@link #canExtract(Long)}.
+     * Override this one rather than the boxed one.
+     *
+     * @param toExtract the amount of energy to extract
+     * @return whether the energy may be extracted
+     */
+    default boolean canExtract(long toExtract) {
+        return true;
+    }
+    
+    @Override
+    default boolean canInsert(Long toInsert) {
+        return canInsert(toInsert.longValue());
+    }
+    
+    @Override
+    default boolean canExtract(Long toExtract) {
+        return canExtract(toExtract.longValue());
+    }
+    
+    @Override
+    default Long getResource() {
+        return getEnergy();
+    }
+    
+    @Override
+    default long getCapacity(Long resource) {
+        return getEnergyCapacity();
+    }
+    
+    @Override
+    default long getResourceCapacity() {
+        return getEnergyCapacity();
+    }
+    
+    @Override
+    default long getAmount() {
+        return getEnergy();
+    }
+    
+    @Override
+    default long insert(Long toInsert, TransferAction action) {
+        return insert(toInsert.longValue(), action);
+    }
+    
+    @Override
+    default Long extract(Long toExtract, TransferAction action) {
+        return extract(toExtract.longValue(), action);
+    }
+    
+    @Override
+    default Long extractAny(long maxAmount, TransferAction action) {
+        return extract(maxAmount, action);
+    }
+}
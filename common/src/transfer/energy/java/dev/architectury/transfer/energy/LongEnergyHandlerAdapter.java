@@ -0,0 +1,79 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.energy;
+
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
+
+/**
+ * Adapts a generic energy handler to {@link LongEnergyHandler}, the amounts are boxed when passed to the delegate.
+ */
+class LongEnergyHandlerAdapter implements LongEnergyHandler {
+    private final SingleTransferHandler<Long> delegate;
+    
+    LongEnergyHandlerAdapter(SingleTransferHandler<Long> delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public long getEnergy() {
+        return delegate.getAmount();
+    }
+    
+    @Override
+    public long getEnergyCapacity() {
+        return delegate.getResourceCapacity();
+    }
+    
+    @Override
+    public long insert(long maxAmount, TransferAction action) {
+        return delegate.insert(maxAmount, action);
+    }
+    
+    @Override
+    public long extract(long maxAmount, TransferAction action) {
+        return delegate.extract(maxAmount, action);
+    }
+    
+    @Override
+    public boolean canInsert(long toInsert) {
+        return delegate.canInsert(toInsert);
+    }
+    
+    @Override
+    public boolean canExtract(long toExtract) {
+        return delegate.canExtract(toExtract);
+    }
+    
+    @Override
+    public Object saveState() {
+        return delegate.saveState();
+    }
+    
+    @Override
+    public void loadState(Object state) {
+        delegate.loadState(state);
+    }
+    
+    @Override
+    public void releaseState(Object state) {
+        delegate.releaseState(state);
+    }
+}
@@ -36,12 +36,12 @@ public class SimpleEnergyTransferHandler implements dev.architectury.transfer.en
     }
     
     @Override
-    public long getCapacity(Long resource) {
+    public long getEnergyCapacity() {
         return this.capacity;
     }
     
     @Override
-    public Long getResource() {
+    public long getEnergy() {
         return this.stored;
     }
     
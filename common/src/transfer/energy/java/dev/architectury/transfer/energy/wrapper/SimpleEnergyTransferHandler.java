@@ -20,13 +20,12 @@
 package dev.architectury.transfer.energy.wrapper;
 
 import dev.architectury.transfer.TransferAction;
-import dev.architectury.transfer.energy.EnergyTransferHandler;
-import org.jetbrains.annotations.Nullable;
+import dev.architectury.transfer.energy.LongEnergyHandler;
 
-public interface SimpleEnergyTransferHandler extends EnergyTransferHandler {
+public interface SimpleEnergyTransferHandler extends LongEnergyHandler {
     @Override
     default Object saveState() {
-        return getResource();
+        return getEnergy();
     }
     
     @Override
@@ -37,31 +36,25 @@ public interface SimpleEnergyTransferHandler extends EnergyTransferHandler {
     void setResource(long resource);
     
     @Override
-    default long insert(Long toInsert, TransferAction action) {
-        long currentAmount = getResource();
-        boolean isEmpty = currentAmount <= 0;
+    default long insert(long toInsert, TransferAction action) {
+        long currentAmount = getEnergy();
         if (canInsert(toInsert)) {
-            @Nullable
-            Long slotSpace = isEmpty ? getResourceCapacity() : getResourceCapacity() - currentAmount;
-            long inserted = slotSpace == null ? toInsert : Math.min(slotSpace, toInsert);
+            long slotSpace = getEnergyCapacity() - currentAmount;
+            long inserted = Math.min(slotSpace, toInsert);
             
             if (inserted > 0 && action == TransferAction.ACT) {
-                if (isEmpty) {
-                    setResource(inserted);
-                } else {
-                    setResource(currentAmount + inserted);
-                }
+                setResource(currentAmount + inserted);
             }
             
-            return inserted;
+            return Math.max(inserted, 0);
         }
         
         return 0;
     }
     
     @Override
-    default Long extract(Long toExtract, TransferAction action) {
-        long resource = getResource();
+    default long extract(long toExtract, TransferAction action) {
+        long resource = getEnergy();
         long extracted = Math.min(toExtract, resource);
         if (extracted > 0) {
             if (action == TransferAction.ACT) {
@@ -71,6 +64,6 @@ public interface SimpleEnergyTransferHandler extends EnergyTransferHandler {
             return extracted;
         }
         
-        return blank();
+        return 0;
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.fluid;
+
+import dev.architectury.fluid.FluidStack;
+import dev.architectury.transfer.TransferKey;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link TransferKey} of {@link FluidStack}s, a fluid and its NBT.
+ */
+public final class FluidKey implements TransferKey<FluidStack> {
+    public static final FluidKey EMPTY = new FluidKey(Fluids.EMPTY, null);
+    private static final Map<Fluid, FluidKey> WITHOUT_TAG = new ConcurrentHashMap<>();
+    private final Fluid fluid;
+    @Nullable
+    private final CompoundTag tag;
+    private int hash;
+    
+    private FluidKey(Fluid fluid, @Nullable CompoundTag tag) {
+        this.fluid = fluid;
+        this.tag = tag;
+    }
+    
+    /**
+     * Returns the key of the given stack.
+     *
+     * @param stack the stack
+     * @return the key of the stack, {@link #EMPTY} if the stack is empty
+     */
+    public static FluidKey of(FluidStack stack) {
+        if (stack.isEmpty()) return EMPTY;
+        return of(stack.getFluid(), stack.getTag());
+    }
+    
+    /**
+     * Returns the key of the given fluid and NBT, keys without NBT are interned, tagged keys copy the tag.
+     *
+     * @param fluid the fluid
+     * @param tag   the NBT, or {@code null}
+     * @return the key
+     */
+    public static FluidKey of(Fluid fluid, @Nullable CompoundTag tag) {
+        if (fluid == Fluids.EMPTY) return EMPTY;
+        if (tag == null) {
+            return WITHOUT_TAG.computeIfAbsent(fluid, $ -> new FluidKey(fluid, null));
+        }
+        return new FluidKey(fluid, tag.copy());
+    }
+    
+    public Fluid getFluid() {
+        return fluid;
+    }
+    
+    public boolean hasTag() {
+        return tag != null;
+    }
+    
+    /**
+     * Returns a copy of the NBT of this key.
+     *
+     * @return the NBT, or {@code null} if this key has none
+     */
+    @Nullable
+    public CompoundTag getTag() {
+        return tag == null ? null : tag.copy();
+    }
+    
+    @Override
+    public boolean isBlank() {
+        return this == EMPTY;
+    }
+    
+    @Override
+    public FluidStack toResource(long amount) {
+        if (isBlank() || amount <= 0) return FluidStack.empty();
+        return FluidStack.create(fluid, amount, getTag());
+    }
+    
+    @Override
+    public boolean matches(FluidStack stack) {
+        if (stack.isEmpty()) return isBlank();
+        if (stack.getFluid() != fluid) return false;
+        CompoundTag other = stack.getTag();
+        return tag == null ? other == null : tag.equals(other);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FluidKey)) return false;
+        FluidKey other = (FluidKey) o;
+        return fluid == other.fluid && (tag == null ? other.tag == null : tag.equals(other.tag));
+    }
+    
+    @Override
+    public int hashCode() {
+        // The NBT hash is deep, only compute it when the key is actually hashed
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = 31 * fluid.hashCode() + (tag == null ? 0 : tag.hashCode());
+            this.hash = hash;
+        }
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return "FluidKey[" + fluid + (tag == null ? "" : ", " + tag) + "]";
+    }
+}
@@ -32,4 +32,9 @@ public interface FluidTransferView extends TransferView<FluidStack> {
     default FluidStack copyWithAmount(FluidStack resource, long amount) {
         return resource.copyWithAmount(amount);
     }
+    
+    @Override
+    default FluidKey keyOf(FluidStack resource) {
+        return FluidKey.of(resource);
+    }
 }
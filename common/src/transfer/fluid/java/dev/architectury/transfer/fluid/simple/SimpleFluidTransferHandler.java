@@ -24,6 +24,7 @@ import dev.architectury.hooks.fluid.FluidStackHooks;
 import dev.architectury.transfer.TagSerializable;
 import dev.architectury.transfer.fluid.FluidTransferHandler;
 import dev.architectury.transfer.fluid.wrapper.CombinedFluidTransferHandler;
+import dev.architectury.transfer.view.MutableAmountView;
 import dev.architectury.transfer.wrapper.combined.CombinedSingleTransferHandler;
 import dev.architectury.transfer.wrapper.single.SimpleSingleTransferHandler;
 import net.minecraft.nbt.CompoundTag;
@@ -107,7 +108,7 @@ public abstract class SimpleFluidTransferHandler<P extends SimpleSingleTransferH
     
     protected abstract long getCapacity(int index);
     
-    protected static class SlotTransferHandler implements SimpleSingleTransferHandler<FluidStack>, FluidTransferHandler {
+    protected static class SlotTransferHandler implements SimpleSingleTransferHandler<FluidStack>, FluidTransferHandler, MutableAmountView {
         protected final int index;
         protected FluidStack stack = FluidStack.empty();
         protected final long capacity;
@@ -127,6 +128,13 @@ public abstract class SimpleFluidTransferHandler<P extends SimpleSingleTransferH
             return this.stack;
         }
         
+        @Override
+        public boolean growAmount(long delta) {
+            if (this.stack.isEmpty()) return false;
+            this.stack.grow(delta);
+            return true;
+        }
+        
         @Override
         public long getCapacity(FluidStack resource) {
             return this.capacity;
@@ -0,0 +1,35 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.fluid.wrapper;
+
+import dev.architectury.fluid.FluidStack;
+import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.wrapper.combined.IndexedCombinedTransferHandler;
+
+import java.util.List;
+
+/**
+ * A {@link IndexedCombinedTransferHandler} for {@link FluidStack}s.
+ */
+public class IndexedCombinedFluidTransferHandler extends IndexedCombinedTransferHandler<FluidStack> implements CombinedFluidTransferHandler {
+    public IndexedCombinedFluidTransferHandler(List<? extends TransferHandler<FluidStack>> handlers) {
+        super(handlers);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.item;
+
+import dev.architectury.transfer.TransferKey;
+import dev.architectury.utils.Amount;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link TransferKey} of {@link ItemStack}s, an item and its NBT.
+ */
+public final class ItemKey implements TransferKey<ItemStack> {
+    public static final ItemKey EMPTY = new ItemKey(Items.AIR, null);
+    private static final Map<Item, ItemKey> WITHOUT_TAG = new ConcurrentHashMap<>();
+    private final Item item;
+    @Nullable
+    private final CompoundTag tag;
+    private int hash;
+    
+    private ItemKey(Item item, @Nullable CompoundTag tag) {
+        this.item = item;
+        this.tag = tag;
+    }
+    
+    /**
+     * Returns the key of the given stack.
+     *
+     * @param stack the stack
+     * @return the key of the stack, {@link #EMPTY} if the stack is empty
+     */
+    public static ItemKey of(ItemStack stack) {
+        if (stack.isEmpty()) return EMPTY;
+        return of(stack.getItem(), stack.getTag());
+    }
+    
+    /**
+     * Returns the key of the given item and NBT, keys without NBT are interned, tagged keys copy the tag.
+     *
+     * @param item the item
+     * @param tag  the NBT, or {@code null}
+     * @return the key
+     */
+    public static ItemKey of(Item item, @Nullable CompoundTag tag) {
+        if (item == Items.AIR) return EMPTY;
+        if (tag == null) {
+            return WITHOUT_TAG.computeIfAbsent(item, $ -> new ItemKey(item, null));
+        }
+        return new ItemKey(item, tag.copy());
+    }
+    
+    public Item getItem() {
+        return item;
+    }
+    
+    public boolean hasTag() {
+        return tag != null;
+    }
+    
+    /**
+     * Returns a copy of the NBT of this key.
+     *
+     * @return the NBT, or {@code null} if this key has none
+     */
+    @Nullable
+    public CompoundTag getTag() {
+        return tag == null ? null : tag.copy();
+    }
+    
+    @Override
+    public boolean isBlank() {
+        return this == EMPTY;
+    }
+    
+    @Override
+    public ItemStack toResource(long amount) {
+        return toStack(Amount.toInt(amount));
+    }
+    
+    public ItemStack toStack(int count) {
+        if (isBlank() || count <= 0) return ItemStack.EMPTY;
+        ItemStack stack = new ItemStack(item, count);
+        if (tag != null) {
+            stack.setTag(tag.copy());
+        }
+        return stack;
+    }
+    
+    @Override
+    public boolean matches(ItemStack stack) {
+        if (stack.isEmpty()) return isBlank();
+        if (stack.getItem() != item) return false;
+        CompoundTag other = stack.getTag();
+        return tag == null ? other == null : tag.equals(other);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemKey)) return false;
+        ItemKey other = (ItemKey) o;
+        return item == other.item && (tag == null ? other.tag == null : tag.equals(other.tag));
+    }
+    
+    @Override
+    public int hashCode() {
+        // The NBT hash is deep, only compute it when the key is actually hashed
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = 31 * item.hashCode() + (tag == null ? 0 : tag.hashCode());
+            this.hash = hash;
+        }
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return "ItemKey[" + item + (tag == null ? "" : ", " + tag) + "]";
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.item;
+
+import dev.architectury.transfer.ResourceQuery;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * {@link ResourceQuery}s for {@link ItemStack}s.
+ */
+public final class ItemQuery implements ResourceQuery<ItemStack> {
+    @Nullable
+    private final ItemKey key;
+    @Nullable
+    private final Item item;
+    @Nullable
+    private final TagKey<Item> tag;
+    private final Predicate<ItemStack> predicate;
+    
+    private ItemQuery(@Nullable ItemKey key, @Nullable Item item, @Nullable TagKey<Item> tag, Predicate<ItemStack> predicate) {
+        this.key = key;
+        this.item = item;
+        this.tag = tag;
+        this.predicate = predicate;
+    }
+    
+    /**
+     * Returns a query that matches stacks of the same item and NBT as the given stack.
+     *
+     * @param stack the stack to match
+     * @return the query
+     */
+    public static ItemQuery exact(ItemStack stack) {
+        return exact(ItemKey.of(stack));
+    }
+    
+    /**
+     * Returns a query that matches stacks of the given key.
+     *
+     * @param key the key to match
+     * @return the query
+     */
+    public static ItemQuery exact(ItemKey key) {
+        return new ItemQuery(key, key.getItem(), null, key::matches);
+    }
+    
+    /**
+     * Returns a query that matches stacks of the given item, regardless of their NBT.
+     *
+     * @param item the item to match
+     * @return the query
+     */
+    public static ItemQuery item(Item item) {
+        return new ItemQuery(null, item, null, stack -> !stack.isEmpty() && stack.getItem() == item);
+    }
+    
+    /**
+     * Returns a query that matches stacks whose item is in the given tag.
+     *
+     * @param tag the tag to match
+     * @return the query
+     */
+    public static ItemQuery tag(TagKey<Item> tag) {
+        return new ItemQuery(null, null, tag, stack -> !stack.isEmpty() && stack.is(tag));
+    }
+    
+    /**
+     * Returns a query that matches the stacks accepted by the given predicate.
+     *
+     * @param predicate the predicate
+     * @return the query
+     */
+    public static ItemQuery matching(Predicate<ItemStack> predicate) {
+        return new ItemQuery(null, null, null, predicate);
+    }
+    
+    @Override
+    @Nullable
+    public ItemKey exactKey() {
+        return key;
+    }
+    
+    /**
+     * Returns the only item matched by this query.
+     *
+     * @return the item, or {@code null} if this query is not limited to a single item
+     */
+    @Nullable
+    public Item getItem() {
+        return item;
+    }
+    
+    /**
+     * Returns the tag matched by this query.
+     *
+     * @return the tag, or {@code null} if this is not a tag query
+     */
+    @Nullable
+    public TagKey<Item> getTag() {
+        return tag;
+    }
+    
+    @Override
+    public boolean test(ItemStack stack) {
+        return predicate.test(stack);
+    }
+}
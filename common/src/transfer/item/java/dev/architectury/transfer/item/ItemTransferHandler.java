@@ -44,6 +44,7 @@ public interface ItemTransferHandler extends ItemTransferView, TransferHandler<I
     @Override
     default boolean isSameVariant(ItemStack first, ItemStack second) {
         // TODO check caps?
-        return ItemStack.matches(first, second);
+        if (first.getItem() != second.getItem()) return false;
+        return ItemStack.isSameItemSameTags(first, second);
     }
 }
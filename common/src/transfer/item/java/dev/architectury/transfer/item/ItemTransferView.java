@@ -34,4 +34,9 @@ public interface ItemTransferView extends TransferView<ItemStack> {
     default ItemStack copyWithAmount(ItemStack resource, long amount) {
         return ItemStackHooks.copyWithCount(resource, Amount.toInt(amount));
     }
+    
+    @Override
+    default ItemKey keyOf(ItemStack resource) {
+        return ItemKey.of(resource);
+    }
 }
@@ -0,0 +1,534 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.item.simple;
+
+import dev.architectury.transfer.ResizableTransferHandler;
+import dev.architectury.transfer.ResourceQuery;
+import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
+import dev.architectury.transfer.TagSerializable;
+import dev.architectury.transfer.TransferAction;
+import dev.architectury.transfer.item.ItemKey;
+import dev.architectury.transfer.item.ItemQuery;
+import dev.architectury.transfer.item.ItemTransferHandler;
+import dev.architectury.transfer.item.ItemTransferView;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * An item handler that stores amounts per {@link ItemKey} in a hash index, instead of in stack sized slots.
+ * <p>
+ * Inserting, extracting and counting a type are constant time, regardless of how many types are stored.
+ * Every stored type is exposed as a virtual slot, followed by a single empty slot while another type fits,
+ * so that slot based inserters can add new types.
+ * <p>
+ * Emptying a type moves the last type into its slot, so slot indices are not stable across an extraction,
+ * not even between a simulation and the following action. Prefer the key based methods over slot indices.
+ * <p>
+ * Saved states do not copy the contents, while a state is held every change is journaled with the previous amount
+ * of its type, so saving is constant time and loading only undoes what was changed since. Saved states must be
+ * loaded in the reverse order they were saved in, and released with {@link #releaseState(Object)}.
+ */
+public class IndexedItemTransferHandler implements ItemTransferHandler, ResizableTransferHandler<ItemStack>, TagSerializable<CompoundTag> {
+    private final int maxTypes;
+    private final long capacityPerType;
+    private final long totalCapacity;
+    private final Object2IntOpenHashMap<ItemKey> index = new Object2IntOpenHashMap<>();
+    private final List<ItemKey> keys = new ArrayList<>();
+    private final LongArrayList amounts = new LongArrayList();
+    private final List<ItemStack> templates = new ArrayList<>();
+    private long totalAmount;
+    private int sizeVersion;
+    private final List<ItemKey> journalKeys = new ArrayList<>();
+    private final LongArrayList journalAmounts = new LongArrayList();
+    private int heldStates;
+    
+    /**
+     * @param maxTypes        the maximum amount of distinct types
+     * @param capacityPerType the maximum amount of a single type
+     * @param totalCapacity   the maximum amount of all types together
+     */
+    public IndexedItemTransferHandler(int maxTypes, long capacityPerType, long totalCapacity) {
+        if (maxTypes < 0 || capacityPerType < 0 || totalCapacity < 0) {
+            throw new IllegalArgumentException("Capacities must be non-negative");
+        }
+        this.maxTypes = maxTypes;
+        this.capacityPerType = capacityPerType;
+        this.totalCapacity = totalCapacity;
+        this.index.defaultReturnValue(-1);
+    }
+    
+    public int getMaxTypes() {
+        return maxTypes;
+    }
+    
+    public long getCapacityPerType() {
+        return capacityPerType;
+    }
+    
+    public long getTotalCapacity() {
+        return totalCapacity;
+    }
+    
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+    
+    /**
+     * Returns the stored amount of the given type.
+     *
+     * @param key the type
+     * @return the stored amount
+     */
+    public long getStored(ItemKey key) {
+        int i = index.getInt(key);
+        return i == -1 ? 0 : amounts.getLong(i);
+    }
+    
+    public long getStored(ItemStack stack) {
+        return getStored(ItemKey.of(stack));
+    }
+    
+    /**
+     * Returns the amount of the given type that can still be inserted.
+     *
+     * @param key the type
+     * @return the remaining space for the type
+     */
+    public long getSpace(ItemKey key) {
+        if (key.isBlank()) return 0;
+        int i = index.getInt(key);
+        if (i == -1 && keys.size() >= maxTypes) return 0;
+        long stored = i == -1 ? 0 : amounts.getLong(i);
+        return Math.max(0, Math.min(capacityPerType - stored, totalCapacity - totalAmount));
+    }
+    
+    public void clear() {
+        for (int i = 0; i < keys.size(); i++) {
+            journal(keys.get(i), amounts.getLong(i));
+        }
+        index.clear();
+        keys.clear();
+        amounts.clear();
+        templates.clear();
+        totalAmount = 0;
+        sizeVersion++;
+    }
+    
+    @Override
+    public int getSizeVersion() {
+        return sizeVersion;
+    }
+    
+    @Override
+    public int size() {
+        return keys.size() < maxTypes ? keys.size() + 1 : keys.size();
+    }
+    
+    @Override
+    public ResourceView<ItemStack> get(int index) {
+        int size = size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        }
+        return index == keys.size() ? new EmptyView() : new KeyView(keys.get(index));
+    }
+    
+    @Override
+    public Iterator<ResourceView<ItemStack>> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+            
+            @Override
+            public ResourceView<ItemStack> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+    
+    @Override
+    public boolean scan(ResourceVisitor<ItemStack> visitor) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (!visitor.visit(i, template(i))) return false;
+        }
+        if (keys.size() < maxTypes) {
+            return visitor.visit(keys.size(), ItemStack.EMPTY);
+        }
+        return true;
+    }
+    
+    @Override
+    public long insert(ItemStack toInsert, TransferAction action) {
+        if (toInsert.isEmpty()) return 0;
+        return insert(ItemKey.of(toInsert), toInsert.getCount(), action);
+    }
+    
+    /**
+     * Inserts an amount of the given type, returning the amount that was inserted.
+     *
+     * @param key    the type to insert
+     * @param amount the amount to insert
+     * @param action whether to simulate or actually insert
+     * @return the amount that was inserted
+     */
+    public long insert(ItemKey key, long amount, TransferAction action) {
+        long inserted = Math.min(amount, getSpace(key));
+        if (inserted > 0 && action == TransferAction.ACT) {
+            int i = index.getInt(key);
+            if (i == -1) {
+                journal(key, 0);
+                add(key, inserted);
+            } else {
+                journal(key, amounts.getLong(i));
+                amounts.set(i, amounts.getLong(i) + inserted);
+            }
+            totalAmount += inserted;
+        }
+        return Math.max(0, inserted);
+    }
+    
+    @Override
+    public ItemStack extract(ItemStack toExtract, TransferAction action) {
+        if (toExtract.isEmpty()) return blank();
+        long extracted = extract(ItemKey.of(toExtract), toExtract.getCount(), action);
+        return extracted > 0 ? copyWithAmount(toExtract, extracted) : blank();
+    }
+    
+    /**
+     * Extracts an amount of the given type, returning the amount that was extracted.
+     *
+     * @param key    the type to extract
+     * @param amount the amount to extract
+     * @param action whether to simulate or actually extract
+     * @return the amount that was extracted
+     */
+    public long extract(ItemKey key, long amount, TransferAction action) {
+        int i = index.getInt(key);
+        if (i == -1 || amount <= 0) return 0;
+        long stored = amounts.getLong(i);
+        long extracted = Math.min(amount, stored);
+        if (action == TransferAction.ACT) {
+            journal(key, stored);
+            totalAmount -= extracted;
+            if (extracted >= stored) {
+                remove(i);
+            } else {
+                amounts.set(i, stored - extracted);
+            }
+        }
+        return extracted;
+    }
+    
+    @Override
+    public ItemStack extract(Predicate<ItemStack> toExtract, long maxAmount, TransferAction action) {
+        return extractFirst(toExtract, null, maxAmount, action);
+    }
+    
+    @Override
+    public ItemStack extract(ResourceQuery<ItemStack> query, long maxAmount, TransferAction action) {
+        if (query.exactKey() instanceof ItemKey) {
+            ItemKey key = (ItemKey) query.exactKey();
+            // A stack can not carry more, anything above would be lost
+            long extracted = extract(key, Math.min(maxAmount, Integer.MAX_VALUE), action);
+            return extracted > 0 ? key.toStack((int) Math.min(extracted, Integer.MAX_VALUE)) : blank();
+        }
+        return extractFirst(query, query instanceof ItemQuery ? ((ItemQuery) query).getItem() : null, maxAmount, action);
+    }
+    
+    private ItemStack extractFirst(Predicate<ItemStack> toExtract, Item item, long maxAmount, TransferAction action) {
+        if (maxAmount <= 0) return blank();
+        for (int i = 0; i < keys.size(); i++) {
+            ItemKey key = keys.get(i);
+            // Reject by item identity before running the predicate
+            if (item != null && key.getItem() != item) continue;
+            if (toExtract.test(template(i))) {
+                long extracted = extract(key, Math.min(maxAmount, Integer.MAX_VALUE), action);
+                return key.toStack((int) Math.min(extracted, Integer.MAX_VALUE));
+            }
+        }
+        return blank();
+    }
+    
+    @Override
+    public Object saveState() {
+        heldStates++;
+        return new State(journalKeys.size());
+    }
+    
+    @Override
+    public void loadState(Object state) {
+        int position = ((State) state).position;
+        if (heldStates <= 0 || position > journalKeys.size()) {
+            throw new IllegalStateException("The state has already been released");
+        }
+        for (int j = journalKeys.size() - 1; j >= position; j--) {
+            restore(journalKeys.get(j), journalAmounts.getLong(j));
+        }
+        journalKeys.subList(position, journalKeys.size()).clear();
+        journalAmounts.removeElements(position, journalAmounts.size());
+    }
+    
+    @Override
+    public void releaseState(Object state) {
+        if (heldStates > 0 && --heldStates == 0) {
+            journalKeys.clear();
+            journalAmounts.clear();
+        }
+    }
+    
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        ListTag list = new ListTag();
+        for (int i = 0; i < keys.size(); i++) {
+            ItemKey key = keys.get(i);
+            CompoundTag entry = new CompoundTag();
+            entry.putString("id", Registry.ITEM.getKey(key.getItem()).toString());
+            if (key.hasTag()) {
+                entry.put("tag", key.getTag());
+            }
+            entry.putLong("Amount", amounts.getLong(i));
+            list.add(entry);
+        }
+        tag.put("Items", list);
+        return tag;
+    }
+    
+    @Override
+    public void load(CompoundTag tag) {
+        clear();
+        for (Tag entryTag : tag.getList("Items", Tag.TAG_COMPOUND)) {
+            CompoundTag entry = (CompoundTag) entryTag;
+            ResourceLocation id = ResourceLocation.tryParse(entry.getString("id"));
+            Item item = id == null ? Items.AIR : Registry.ITEM.get(id);
+            if (item == Items.AIR) continue;
+            put(ItemKey.of(item, entry.contains("tag", Tag.TAG_COMPOUND) ? entry.getCompound("tag") : null), entry.getLong("Amount"));
+        }
+    }
+    
+    private void put(ItemKey key, long amount) {
+        if (amount <= 0 || key.isBlank()) return;
+        int i = index.getInt(key);
+        if (i == -1) {
+            journal(key, 0);
+            add(key, amount);
+        } else {
+            journal(key, amounts.getLong(i));
+            amounts.set(i, amounts.getLong(i) + amount);
+        }
+        totalAmount += amount;
+    }
+    
+    /**
+     * Records the amount a type had before a change, only while a saved state is held.
+     */
+    private void journal(ItemKey key, long previous) {
+        if (heldStates > 0) {
+            journalKeys.add(key);
+            journalAmounts.add(previous);
+        }
+    }
+    
+    /**
+     * Sets the amount of a type back to a journaled amount, without journaling it again.
+     */
+    private void restore(ItemKey key, long amount) {
+        int i = index.getInt(key);
+        long current = i == -1 ? 0 : amounts.getLong(i);
+        if (amount == current) return;
+        totalAmount += amount - current;
+        if (amount <= 0) {
+            remove(i);
+        } else if (i == -1) {
+            add(key, amount);
+        } else {
+            amounts.set(i, amount);
+        }
+    }
+    
+    /**
+     * Adds a new type as the last slot.
+     */
+    private void add(ItemKey key, long amount) {
+        index.put(key, keys.size());
+        keys.add(key);
+        amounts.add(amount);
+        templates.add(null);
+        sizeVersion++;
+    }
+    
+    /**
+     * Removes the type at the given slot, moving the last type into its place.
+     */
+    private void remove(int i) {
+        int last = keys.size() - 1;
+        index.removeInt(keys.get(i));
+        if (i != last) {
+            keys.set(i, keys.get(last));
+            amounts.set(i, amounts.getLong(last));
+            templates.set(i, templates.get(last));
+            index.put(keys.get(i), i);
+        }
+        keys.remove(last);
+        amounts.removeLong(last);
+        templates.remove(last);
+        sizeVersion++;
+    }
+    
+    /**
+     * Returns the reused stack of the slot, only handed out to predicates and visitors, which must not modify it
+     * as documented on {@link ResourceVisitor} and {@link #extract(Predicate, long, TransferAction)}.
+     * The count is set again on every use, a modified tag would be handed out until the type is removed.
+     */
+    private ItemStack template(int i) {
+        ItemStack template = templates.get(i);
+        if (template == null) {
+            template = keys.get(i).toStack(1);
+            templates.set(i, template);
+        }
+        template.setCount((int) Math.min(amounts.getLong(i), Integer.MAX_VALUE));
+        return template;
+    }
+    
+    /**
+     * A position in the journal, loading it undoes every change journaled after it.
+     */
+    private static class State {
+        private final int position;
+        
+        private State(int position) {
+            this.position = position;
+        }
+    }
+    
+    /**
+     * The trailing slot, which takes any type that still fits.
+     */
+    private class EmptyView implements ResourceView<ItemStack>, ItemTransferView {
+        @Override
+        public ItemStack getResource() {
+            return ItemStack.EMPTY;
+        }
+        
+        @Override
+        public ItemKey key() {
+            return ItemKey.EMPTY;
+        }
+        
+        @Override
+        public long getCapacity(ItemStack resource) {
+            return capacityPerType;
+        }
+        
+        @Override
+        public long insert(ItemStack toInsert, TransferAction action) {
+            return IndexedItemTransferHandler.this.insert(toInsert, action);
+        }
+        
+        @Override
+        public ItemStack extract(ItemStack toExtract, TransferAction action) {
+            return blank();
+        }
+        
+        @Override
+        public Object saveState() {
+            return IndexedItemTransferHandler.this.saveState();
+        }
+        
+        @Override
+        public void loadState(Object state) {
+            IndexedItemTransferHandler.this.loadState(state);
+        }
+        
+        @Override
+        public void releaseState(Object state) {
+            IndexedItemTransferHandler.this.releaseState(state);
+        }
+    }
+    
+    private class KeyView implements ResourceView<ItemStack>, ItemTransferView {
+        private final ItemKey key;
+        
+        private KeyView(ItemKey key) {
+            this.key = key;
+        }
+        
+        @Override
+        public ItemStack getResource() {
+            return key.toStack((int) Math.min(getStored(key), Integer.MAX_VALUE));
+        }
+        
+        @Override
+        public ItemKey key() {
+            return key;
+        }
+        
+        @Override
+        public long getCapacity(ItemStack resource) {
+            return capacityPerType;
+        }
+        
+        @Override
+        public long insert(ItemStack toInsert, TransferAction action) {
+            if (!key.matches(toInsert)) return 0;
+            return IndexedItemTransferHandler.this.insert(key, toInsert.getCount(), action);
+        }
+        
+        @Override
+        public ItemStack extract(ItemStack toExtract, TransferAction action) {
+            if (!key.matches(toExtract)) return blank();
+            return IndexedItemTransferHandler.this.extract(toExtract, action);
+        }
+        
+        @Override
+        public Object saveState() {
+            return IndexedItemTransferHandler.this.saveState();
+        }
+        
+        @Override
+        public void loadState(Object state) {
+            IndexedItemTransferHandler.this.loadState(state);
+        }
+        
+        @Override
+        public void releaseState(Object state) {
+            IndexedItemTransferHandler.this.releaseState(state);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package dev.architectury.transfer.item.wrapper;
 
 import dev.architectury.transfer.item.ItemTransferHandler;
 import dev.architectury.transfer.item.simple.SimpleItemTransferHandler;
+import dev.architectury.transfer.view.MutableAmountView;
 import dev.architectury.transfer.wrapper.combined.CombinedSingleTransferHandler;
 import dev.architectury.transfer.wrapper.single.SimpleSingleTransferHandler;
 import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
@@ -29,6 +30,9 @@ import net.minecraft.world.item.ItemStack;
 
 import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+
+import static dev.architectury.utils.Amount.toInt;
 
 public abstract class ContainerTransferHandler<C extends Container, P extends SingleTransferHandler<ItemStack>> implements CombinedItemTransferHandler, CombinedSingleTransferHandler<ItemStack, P> {
     public final C container;
@@ -66,22 +70,49 @@ public abstract class ContainerTransferHandler<C extends Container, P extends Si
     
     protected abstract P asTransfer(int index);
     
-    protected class Handlers extends AbstractList<P> {
+    /**
+     * Returns the amount of slots exposed by this handler.
+     *
+     * @return the amount of slots
+     */
+    protected int getSlotCount() {
+        return container.getContainerSize();
+    }
+    
+    /**
+     * The slot handlers of the container, they are created once and only rebuilt when the slot count changes.
+     */
+    protected class Handlers extends AbstractList<P> implements RandomAccess {
+        private Object[] slots = new Object[0];
+        
         @Override
         public P get(int index) {
-            if (index < 0 || index >= size()) {
-                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size());
+            Object[] slots = slots();
+            if (index < 0 || index >= slots.length) {
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + slots.length);
+            }
+            P slot = (P) slots[index];
+            if (slot == null) {
+                slots[index] = slot = asTransfer(index);
             }
-            return asTransfer(index);
+            return slot;
         }
         
         @Override
         public int size() {
-            return container.getContainerSize();
+            return slots().length;
+        }
+        
+        private Object[] slots() {
+            int size = getSlotCount();
+            if (slots.length != size) {
+                slots = new Object[size];
+            }
+            return slots;
         }
     }
     
-    protected static class SlotTransferHandler implements SimpleSingleTransferHandler<ItemStack>, ItemTransferHandler {
+    protected static class SlotTransferHandler implements SimpleSingleTransferHandler<ItemStack>, ItemTransferHandler, MutableAmountView {
         protected final Container container;
         protected final int index;
         
@@ -100,6 +131,16 @@ public abstract class ContainerTransferHandler<C extends Container, P extends Si
             return container.getItem(index);
         }
         
+        @Override
+        public boolean growAmount(long delta) {
+            // Containers hand out their live stacks, vanilla hoppers grow them the same way
+            ItemStack stack = container.getItem(index);
+            if (stack.isEmpty()) return false;
+            stack.grow(toInt(delta));
+            container.setChanged();
+            return true;
+        }
+        
         @Override
         public long getCapacity(ItemStack resource) {
             return Math.min(container.getMaxStackSize(), resource.getMaxStackSize());
@@ -34,10 +34,16 @@ public class WorldlyContainerTransferHandler<C extends WorldlyContainer> extends
         this.slots = container.getSlotsForFace(this.direction);
     }
     
+    @Override
+    protected int getSlotCount() {
+        return slots.length;
+    }
+    
     @Override
     protected SingleTransferHandler<ItemStack> asTransfer(int index) {
-        return new SlotTransferHandler(container, slots[index]).filter(
-                stack -> container.canPlaceItemThroughFace(index, stack, direction),
-                stack -> container.canTakeItemThroughFace(index, stack, direction));
+        int slot = slots[index];
+        return new SlotTransferHandler(container, slot).filter(
+                stack -> container.canPlaceItemThroughFace(slot, stack, direction),
+                stack -> container.canTakeItemThroughFace(slot, stack, direction));
     }
 }
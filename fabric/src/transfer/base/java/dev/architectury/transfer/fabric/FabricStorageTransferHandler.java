@@ -22,15 +22,21 @@ package dev.architectury.transfer.fabric;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.TransferKey;
 import net.fabricmc.fabric.api.transfer.v1.item.InventoryStorage;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -65,6 +71,23 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
                 view -> new FabricStorageResourceView(view, transaction));
     }
     
+    @Override
+    public boolean scan(ResourceVisitor<S> visitor) {
+        int index = 0;
+        for (StorageView<F> view : storage) {
+            // Visitors may not keep the resource, so the reusable test resource is enough
+            S resource = view.isResourceBlank() ? blank() : testFromFabric(view);
+            boolean proceed;
+            try {
+                proceed = visitor.visit(index++, resource);
+            } finally {
+                releaseTest(resource);
+            }
+            if (!proceed) return false;
+        }
+        return true;
+    }
+    
     @Override
     public int size() {
         if (storage instanceof InventoryStorage) {
@@ -116,7 +139,7 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
     public S extract(Predicate<S> toExtract, long maxAmount, TransferAction action) {
         try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
             for (StorageView<F> view : this.storage) {
-                if (!view.isResourceBlank() && toExtract.test(fromFabric(view))) {
+                if (!view.isResourceBlank() && test(view, toExtract)) {
                     long extracted = view.extract(view.getResource(), maxAmount, nested);
                     
                     if (action == TransferAction.ACT) {
@@ -131,6 +154,64 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
         return blank();
     }
     
+    @Override
+    public long[] insertAll(Collection<S> toInsert, TransferAction action) {
+        long[] inserted = new long[toInsert.size()];
+        int i = 0;
+        
+        // a single transaction, so that simulated insertions see the space taken by the previous ones
+        try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
+            for (S resource : toInsert) {
+                if (!isEmpty(resource)) {
+                    inserted[i] = this.storage.insert(toFabric(resource), getAmount(resource), nested);
+                }
+                i++;
+            }
+            
+            if (action == TransferAction.ACT) {
+                nested.commit();
+            }
+        }
+        
+        return inserted;
+    }
+    
+    @Override
+    public List<S> extractMatching(Predicate<S> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+        List<S> extracted = new ArrayList<>();
+        if (maxAmount <= 0 || maxTypes <= 0) return extracted;
+        List<F> types = new ArrayList<>();
+        long[] amounts = new long[maxTypes];
+        
+        try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
+            for (StorageView<F> view : this.storage) {
+                if (view.isResourceBlank()) continue;
+                F variant = view.getResource();
+                int type = types.indexOf(variant);
+                
+                if (type == -1) {
+                    if (types.size() >= maxTypes || !test(view, toExtract)) continue;
+                    long amount = view.extract(variant, maxAmount, nested);
+                    if (amount > 0) {
+                        amounts[types.size()] = amount;
+                        types.add(variant);
+                    }
+                } else if (amounts[type] < maxAmount) {
+                    amounts[type] += view.extract(variant, maxAmount - amounts[type], nested);
+                }
+            }
+            
+            if (action == TransferAction.ACT) {
+                nested.commit();
+            }
+        }
+        
+        for (int i = 0; i < types.size(); i++) {
+            extracted.add(fromFabric(types.get(i), amounts[i]));
+        }
+        return extracted;
+    }
+    
     @Override
     public S blank() {
         return typeAdapter.blank.get();
@@ -141,6 +222,12 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
         return typeAdapter.copyWithAmount.apply(stack, amount);
     }
     
+    @Override
+    public TransferKey<S> keyOf(S resource) {
+        if (typeAdapter.toKey == null) return TransferHandler.super.keyOf(resource);
+        return typeAdapter.toKey.apply(resource);
+    }
+    
     @Override
     public Object saveState() {
         throw new UnsupportedOperationException();
@@ -171,6 +258,25 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
         return typeAdapter.fromFabric.apply(variant, amount);
     }
     
+    private S testFromFabric(StorageView<F> view) {
+        return typeAdapter.fromFabricForTest.apply(view.getResource(), view.getAmount());
+    }
+    
+    private void releaseTest(S resource) {
+        if (typeAdapter.releaseForTest != null) {
+            typeAdapter.releaseForTest.accept(resource);
+        }
+    }
+    
+    private boolean test(StorageView<F> view, Predicate<S> predicate) {
+        S resource = testFromFabric(view);
+        try {
+            return predicate.test(resource);
+        } finally {
+            releaseTest(resource);
+        }
+    }
+    
     public interface FunctionWithAmount<F, S> {
         S apply(F variant, long amount);
     }
@@ -204,6 +310,11 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
             return FabricStorageTransferHandler.this.copyWithAmount(resource, amount);
         }
         
+        @Override
+        public TransferKey<S> keyOf(S resource) {
+            return FabricStorageTransferHandler.this.keyOf(resource);
+        }
+        
         @Override
         public long insert(S toInsert, TransferAction action) {
             if (view instanceof Storage) {
@@ -263,14 +374,43 @@ public class FabricStorageTransferHandler<F, S> implements TransferHandler<S> {
         final Supplier<S> blank;
         final Predicate<S> isEmpty;
         final ToLongFunction<S> toAmount;
+        /**
+         * Converts a variant into a resource that is only tested by predicates, this may return a reused instance.
+         */
+        final FunctionWithAmount<F, S> fromFabricForTest;
+        /**
+         * Hands a resource of {@link #fromFabricForTest} back once it was tested, so that it can be reused.
+         */
+        @Nullable
+        final Consumer<S> releaseForTest;
+        @Nullable
+        final Function<S, TransferKey<S>> toKey;
         
         public TypeAdapter(Function<S, F> toFabric, FunctionWithAmount<F, S> fromFabric, FunctionWithAmount<S, S> copyWithAmount, Supplier<S> blank, Predicate<S> isEmpty, ToLongFunction<S> toAmount) {
+            this(toFabric, fromFabric, copyWithAmount, blank, isEmpty, toAmount, fromFabric);
+        }
+        
+        public TypeAdapter(Function<S, F> toFabric, FunctionWithAmount<F, S> fromFabric, FunctionWithAmount<S, S> copyWithAmount, Supplier<S> blank, Predicate<S> isEmpty, ToLongFunction<S> toAmount,
+                FunctionWithAmount<F, S> fromFabricForTest) {
+            this(toFabric, fromFabric, copyWithAmount, blank, isEmpty, toAmount, fromFabricForTest, null);
+        }
+        
+        public TypeAdapter(Function<S, F> toFabric, FunctionWithAmount<F, S> fromFabric, FunctionWithAmount<S, S> copyWithAmount, Supplier<S> blank, Predicate<S> isEmpty, ToLongFunction<S> toAmount,
+                FunctionWithAmount<F, S> fromFabricForTest, @Nullable Function<S, TransferKey<S>> toKey) {
+            this(toFabric, fromFabric, copyWithAmount, blank, isEmpty, toAmount, fromFabricForTest, null, toKey);
+        }
+        
+        public TypeAdapter(Function<S, F> toFabric, FunctionWithAmount<F, S> fromFabric, FunctionWithAmount<S, S> copyWithAmount, Supplier<S> blank, Predicate<S> isEmpty, ToLongFunction<S> toAmount,
+                FunctionWithAmount<F, S> fromFabricForTest, @Nullable Consumer<S> releaseForTest, @Nullable Function<S, TransferKey<S>> toKey) {
             this.toFabric = toFabric;
             this.fromFabric = fromFabric;
+            this.fromFabricForTest = fromFabricForTest;
+            this.releaseForTest = releaseForTest;
             this.copyWithAmount = copyWithAmount;
             this.blank = blank;
             this.isEmpty = isEmpty;
             this.toAmount = toAmount;
+            this.toKey = toKey;
         }
     }
 }
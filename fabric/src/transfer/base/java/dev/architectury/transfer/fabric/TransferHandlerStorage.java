@@ -23,17 +23,47 @@ import com.google.common.collect.Iterators;
 import dev.architectury.transfer.ResourceView;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.wrapper.combined.CombinedSingleTransferHandler;
+import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
 import net.fabricmc.fabric.api.transfer.v1.transaction.base.SnapshotParticipant;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
+/**
+ * Exposes a {@link TransferHandler} as a fabric {@link Storage}.
+ * <p>
+ * Rollbacks are normally done by snapshotting the whole handler with {@link TransferHandler#saveState()}.
+ * For a {@link CombinedSingleTransferHandler} that keeps the default {@code insert} and {@code extract},
+ * the transfers are instead done slot by slot, and only the slots that are actually changed join the transaction.
+ * Handlers that override either method are always transferred through them.
+ */
 @SuppressWarnings("UnstableApiUsage")
 public class TransferHandlerStorage<F, S> extends SnapshotParticipant<Object> implements Storage<F> {
+    private static final SlotParticipant<?>[] EMPTY = new SlotParticipant[0];
+    /**
+     * Whether a handler class is a combined handler with the default insert and extract, only those can be walked slot by slot.
+     */
+    private static final ClassValue<Boolean> SLOT_WISE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!CombinedSingleTransferHandler.class.isAssignableFrom(type)) return false;
+            try {
+                // Overriding with a concrete resource type declares a bridge method in the class, so it is noticed as well
+                return type.getMethod("insert", Object.class, TransferAction.class).getDeclaringClass() == CombinedSingleTransferHandler.class
+                        && type.getMethod("extract", Object.class, TransferAction.class).getDeclaringClass() == CombinedSingleTransferHandler.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
     private final TransferHandler<S> handler;
     private final FabricStorageTransferHandler.TypeAdapter<F, S> typeAdapter;
+    private SlotParticipant<S>[] slots = (SlotParticipant<S>[]) EMPTY;
     
     public TransferHandlerStorage(TransferHandler<S> handler, FabricStorageTransferHandler.TypeAdapter<F, S> typeAdapter) {
         this.handler = handler;
@@ -48,17 +78,64 @@ public class TransferHandlerStorage<F, S> extends SnapshotParticipant<Object> im
     
     @Override
     public long insert(F resource, long maxAmount, TransactionContext transaction) {
+        S toInsert = typeAdapter.fromFabric.apply(resource, maxAmount);
+        if (SLOT_WISE.get(this.handler.getClass())) {
+            List<? extends SingleTransferHandler<S>> contents = ((CombinedSingleTransferHandler<S, ?>) this.handler).getContents();
+            long remaining = maxAmount;
+            
+            for (int i = 0; i < contents.size() && remaining > 0; i++) {
+                SingleTransferHandler<S> slot = contents.get(i);
+                Object before = slot.saveState();
+                long inserted = slot.insert(this.handler.copyWithAmount(toInsert, remaining), TransferAction.ACT);
+                if (inserted > 0) {
+                    getSlot(i).journal(before, transaction);
+                    remaining -= inserted;
+                }
+            }
+            
+            return maxAmount - remaining;
+        }
+        
         updateSnapshots(transaction);
-        return this.handler.insert(typeAdapter.fromFabric.apply(resource, maxAmount), TransferAction.ACT);
+        return this.handler.insert(toInsert, TransferAction.ACT);
     }
     
     @Override
     public long extract(F resource, long maxAmount, TransactionContext transaction) {
+        S toExtract = typeAdapter.fromFabric.apply(resource, maxAmount);
+        if (SLOT_WISE.get(this.handler.getClass())) {
+            List<? extends SingleTransferHandler<S>> contents = ((CombinedSingleTransferHandler<S, ?>) this.handler).getContents();
+            long remaining = maxAmount;
+            
+            for (int i = 0; i < contents.size() && remaining > 0; i++) {
+                SingleTransferHandler<S> slot = contents.get(i);
+                Object before = slot.saveState();
+                long extracted = typeAdapter.toAmount.applyAsLong(slot.extract(this.handler.copyWithAmount(toExtract, remaining), TransferAction.ACT));
+                if (extracted > 0) {
+                    getSlot(i).journal(before, transaction);
+                    remaining -= extracted;
+                }
+            }
+            
+            return maxAmount - remaining;
+        }
+        
         updateSnapshots(transaction);
-        S extracted = this.handler.extract(typeAdapter.fromFabric.apply(resource, maxAmount), TransferAction.ACT);
+        S extracted = this.handler.extract(toExtract, TransferAction.ACT);
         return typeAdapter.toAmount.applyAsLong(extracted);
     }
     
+    private SlotParticipant<S> getSlot(int index) {
+        if (index >= slots.length) {
+            int oldLength = slots.length;
+            slots = Arrays.copyOf(slots, index + 1);
+            for (int i = oldLength; i < slots.length; i++) {
+                slots[i] = new SlotParticipant<>((CombinedSingleTransferHandler<S, ?>) this.handler, i);
+            }
+        }
+        return slots[index];
+    }
+    
     @Override
     protected Object createSnapshot() {
         return this.handler.saveState();
@@ -69,6 +146,60 @@ public class TransferHandlerStorage<F, S> extends SnapshotParticipant<Object> im
         this.handler.loadState(snapshot);
     }
     
+    @Override
+    protected void releaseSnapshot(Object snapshot) {
+        this.handler.releaseState(snapshot);
+    }
+    
+    /**
+     * Journals a single slot of a {@link CombinedSingleTransferHandler}, the slot is looked up again
+     * on rollback as the handlers of the slots are not required to be stable.
+     */
+    private static class SlotParticipant<S> extends SnapshotParticipant<Object> {
+        private final CombinedSingleTransferHandler<S, ?> handler;
+        private final int index;
+        private Object before;
+        
+        private SlotParticipant(CombinedSingleTransferHandler<S, ?> handler, int index) {
+            this.handler = handler;
+            this.index = index;
+        }
+        
+        /**
+         * Journals the slot with the state it had before it was changed, a slot already journaled in the transaction keeps its older state
+         * and the given state is released.
+         */
+        private void journal(Object before, TransactionContext transaction) {
+            this.before = before;
+            try {
+                updateSnapshots(transaction);
+            } finally {
+                if (this.before != null) {
+                    handler.getContents().get(index).releaseState(this.before);
+                    this.before = null;
+                }
+            }
+        }
+        
+        @Override
+        protected Object createSnapshot() {
+            if (before == null) return handler.getContents().get(index).saveState();
+            Object snapshot = before;
+            before = null;
+            return snapshot;
+        }
+        
+        @Override
+        protected void readSnapshot(Object snapshot) {
+            handler.getContents().get(index).loadState(snapshot);
+        }
+        
+        @Override
+        protected void releaseSnapshot(Object snapshot) {
+            handler.getContents().get(index).releaseState(snapshot);
+        }
+    }
+    
     private static class FabricStorageView<F, S> extends SnapshotParticipant<Object> implements StorageView<F> {
         private final ResourceView<S> storage;
         private final FabricStorageTransferHandler.TypeAdapter<F, S> typeAdapter;
@@ -114,5 +245,10 @@ public class TransferHandlerStorage<F, S> extends SnapshotParticipant<Object> im
         protected void readSnapshot(Object snapshot) {
             storage.loadState(snapshot);
         }
+        
+        @Override
+        protected void releaseSnapshot(Object snapshot) {
+            storage.releaseState(snapshot);
+        }
     }
 }
@@ -20,7 +20,8 @@
 package dev.architectury.transfer.energy.fabric;
 
 import dev.architectury.transfer.TransferAction;
-import dev.architectury.transfer.energy.EnergyTransferHandler;
+import dev.architectury.transfer.energy.DistributionPolicy;
+import dev.architectury.transfer.energy.LongEnergyHandler;
 import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
@@ -28,6 +29,8 @@ import net.fabricmc.fabric.api.transfer.v1.transaction.base.SnapshotParticipant;
 import org.jetbrains.annotations.Nullable;
 import team.reborn.energy.api.EnergyStorage;
 
+import java.util.List;
+
 @SuppressWarnings("UnstableApiUsage")
 public class EnergyTransferImpl {
     @Nullable
@@ -56,7 +59,30 @@ public class EnergyTransferImpl {
         return EnergyStorage.SIDED;
     }
     
-    private static class FabricTransferHandler implements EnergyTransferHandler {
+    public static long distributeImpl(SingleTransferHandler<Long> source, List<? extends SingleTransferHandler<Long>> targets, long maxTotal, DistributionPolicy policy) {
+        EnergyStorage from = (EnergyStorage) unwrap(source);
+        EnergyStorage[] to = new EnergyStorage[targets.size()];
+        for (int i = 0; i < to.length; i++) {
+            to[i] = (EnergyStorage) unwrap(targets.get(i));
+        }
+        
+        // a single transaction for the whole distribution, left uncommitted if the source cannot pay for it
+        try (Transaction transaction = Transaction.openNested(Transaction.getCurrentUnsafe())) {
+            long available;
+            
+            try (Transaction simulation = transaction.openNested()) {
+                available = from.extract(maxTotal, simulation);
+            }
+            
+            if (available <= 0) return 0;
+            long moved = policy.distribute(available, to.length, (target, amount) -> to[target].insert(amount, transaction));
+            if (moved <= 0 || from.extract(moved, transaction) != moved) return 0;
+            transaction.commit();
+            return moved;
+        }
+    }
+    
+    private static class FabricTransferHandler implements LongEnergyHandler {
         private final EnergyStorage storage;
         @Nullable
         private final Transaction transaction;
@@ -71,12 +97,12 @@ public class EnergyTransferImpl {
         }
         
         @Override
-        public Long getResource() {
+        public long getEnergy() {
             return storage.getAmount();
         }
         
         @Override
-        public long getCapacity(Long resource) {
+        public long getEnergyCapacity() {
             return storage.getCapacity();
         }
         
@@ -88,7 +114,8 @@ public class EnergyTransferImpl {
         }
         
         @Override
-        public long insert(Long toInsert, TransferAction action) {
+        public long insert(long toInsert, TransferAction action) {
+            if (toInsert <= 0) return 0;
             long inserted;
             
             try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
@@ -103,8 +130,8 @@ public class EnergyTransferImpl {
         }
         
         @Override
-        public Long extract(Long toExtract, TransferAction action) {
-            if (toExtract <= 0) return blank();
+        public long extract(long toExtract, TransferAction action) {
+            if (toExtract <= 0) return 0;
             long extracted;
             
             try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
@@ -130,10 +157,10 @@ public class EnergyTransferImpl {
     }
     
     private static class EnergyTransferHandlerStorage extends SnapshotParticipant<Object> implements EnergyStorage {
-        private final SingleTransferHandler<Long> handler;
+        private final LongEnergyHandler handler;
         
-        public EnergyTransferHandlerStorage(@Nullable SingleTransferHandler<Long> handler) {
-            this.handler = handler;
+        public EnergyTransferHandlerStorage(SingleTransferHandler<Long> handler) {
+            this.handler = LongEnergyHandler.of(handler);
         }
         
         @Override
@@ -145,17 +172,17 @@ public class EnergyTransferImpl {
         @Override
         public long extract(long maxAmount, TransactionContext transaction) {
             updateSnapshots(transaction);
-            return this.handler.extractAny(maxAmount, TransferAction.ACT);
+            return this.handler.extract(maxAmount, TransferAction.ACT);
         }
         
         @Override
         public long getAmount() {
-            return handler.getAmount();
+            return handler.getEnergy();
         }
         
         @Override
         public long getCapacity() {
-            return handler.getResourceCapacity();
+            return handler.getEnergyCapacity();
         }
         
         @Override
@@ -167,5 +194,10 @@ public class EnergyTransferImpl {
         protected void readSnapshot(Object snapshot) {
             this.handler.loadState(snapshot);
         }
+        
+        @Override
+        protected void releaseSnapshot(Object snapshot) {
+            this.handler.releaseState(snapshot);
+        }
     }
 }
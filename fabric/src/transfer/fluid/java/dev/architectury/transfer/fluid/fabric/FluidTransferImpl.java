@@ -22,13 +22,16 @@ package dev.architectury.transfer.fluid.fabric;
 import dev.architectury.fluid.FluidStack;
 import dev.architectury.hooks.fluid.fabric.FluidStackHooksFabric;
 import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.TransferKey;
 import dev.architectury.transfer.fabric.FabricStorageTransferHandler;
 import dev.architectury.transfer.fabric.TransferHandlerStorage;
+import dev.architectury.transfer.fluid.FluidKey;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidStorage;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -36,13 +39,16 @@ import java.util.function.ToLongFunction;
 
 @SuppressWarnings("UnstableApiUsage")
 public class FluidTransferImpl {
-    private static final Function<FluidStack, FluidVariant> TO_FABRIC = FluidStackHooksFabric::toFabric;
+    private static final Function<FluidStack, FluidVariant> TO_FABRIC = FluidVariantCache::toFabric;
     private static final FabricStorageTransferHandler.FunctionWithAmount<FluidVariant, FluidStack> FROM_FABRIC = FluidStackHooksFabric::fromFabric;
     private static final FabricStorageTransferHandler.FunctionWithAmount<FluidStack, FluidStack> COPY_WITH_AMOUNT = FluidStack::copyWithAmount;
     private static final Supplier<FluidStack> BLANK = FluidStack::empty;
     private static final Predicate<FluidStack> IS_EMPTY = FluidStack::isEmpty;
     private static final ToLongFunction<FluidStack> TO_AMOUNT = FluidStack::getAmount;
-    private static final FabricStorageTransferHandler.TypeAdapter<FluidVariant, FluidStack> TYPE_ADAPTER = new FabricStorageTransferHandler.TypeAdapter<>(TO_FABRIC, FROM_FABRIC, COPY_WITH_AMOUNT, BLANK, IS_EMPTY, TO_AMOUNT);
+    private static final FabricStorageTransferHandler.FunctionWithAmount<FluidVariant, FluidStack> FROM_FABRIC_FOR_TEST = FluidVariantCache::toTestStack;
+    private static final Consumer<FluidStack> RELEASE_FOR_TEST = FluidVariantCache::releaseTestStack;
+    private static final Function<FluidStack, TransferKey<FluidStack>> TO_KEY = FluidKey::of;
+    private static final FabricStorageTransferHandler.TypeAdapter<FluidVariant, FluidStack> TYPE_ADAPTER = new FabricStorageTransferHandler.TypeAdapter<>(TO_FABRIC, FROM_FABRIC, COPY_WITH_AMOUNT, BLANK, IS_EMPTY, TO_AMOUNT, FROM_FABRIC_FOR_TEST, RELEASE_FOR_TEST, TO_KEY);
     
     @Nullable
     public static TransferHandler<FluidStack> wrap(@Nullable Object object) {
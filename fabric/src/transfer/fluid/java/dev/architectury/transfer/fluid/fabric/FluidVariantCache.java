@@ -0,0 +1,109 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.fluid.fabric;
+
+import dev.architectury.fluid.FluidStack;
+import dev.architectury.hooks.fluid.fabric.FluidStackHooksFabric;
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.material.Fluid;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per thread conversion cache between {@link FluidStack}s and {@link FluidVariant}s.
+ * <p>
+ * The last variant with NBT is remembered and reused as long as the stacks converted keep matching it,
+ * instead of copying the tag on every conversion.
+ * <p>
+ * The test stack is lent until it is released, conversions made while it is lent (e.g. by a predicate testing it)
+ * get a fresh stack, and a stack that comes back modified is not reused.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class FluidVariantCache {
+    private static final ThreadLocal<FluidVariantCache> CACHE = ThreadLocal.withInitial(FluidVariantCache::new);
+    @Nullable
+    private FluidVariant lastVariant;
+    @Nullable
+    private FluidVariant testVariant;
+    @Nullable
+    private FluidStack testStack;
+    private boolean testLent;
+    @Nullable
+    private CompoundTag testTag;
+    private long testAmount;
+    
+    private FluidVariantCache() {
+    }
+    
+    static FluidVariant toFabric(FluidStack stack) {
+        CompoundTag tag = stack.getTag();
+        if (tag == null || stack.isEmpty()) return FluidStackHooksFabric.toFabric(stack);
+        return CACHE.get().toFabric(stack.getFluid(), tag);
+    }
+    
+    /**
+     * Returns a stack of the given variant that is only meant to be tested, not kept nor modified.
+     * The stack must be handed back with {@link #releaseTestStack(FluidStack)} once it was tested.
+     */
+    static FluidStack toTestStack(FluidVariant variant, long amount) {
+        return CACHE.get().toTestStack0(variant, amount);
+    }
+    
+    static void releaseTestStack(FluidStack stack) {
+        CACHE.get().releaseTestStack0(stack);
+    }
+    
+    private FluidVariant toFabric(Fluid fluid, CompoundTag tag) {
+        FluidVariant variant = lastVariant;
+        if (variant == null || variant.getFluid() != fluid || !variant.nbtMatches(tag)) {
+            variant = FluidVariant.of(fluid, tag);
+            lastVariant = variant;
+        }
+        return variant;
+    }
+    
+    private FluidStack toTestStack0(FluidVariant variant, long amount) {
+        if (testLent) {
+            // Reentrant conversion, the lent stack is still being tested
+            return FluidStackHooksFabric.fromFabric(variant, amount);
+        }
+        FluidStack stack = testStack;
+        if (stack == null || (variant != testVariant && !variant.equals(testVariant))) {
+            testVariant = variant;
+            stack = testStack = FluidStackHooksFabric.fromFabric(variant, amount);
+            testTag = stack.getTag();
+        } else {
+            stack.setAmount(amount);
+        }
+        testAmount = amount;
+        testLent = true;
+        return stack;
+    }
+    
+    private void releaseTestStack0(FluidStack stack) {
+        if (stack != testStack || !testLent) return;
+        testLent = false;
+        if (testVariant == null || stack.getFluid() != testVariant.getFluid() || stack.getTag() != testTag || stack.getAmount() != testAmount) {
+            // The stack was modified, do not hand it out again
+            testVariant = null;
+            testStack = null;
+        }
+    }
+}
@@ -23,8 +23,10 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.item.ItemKey;
 import net.fabricmc.fabric.api.transfer.v1.context.ContainerItemContext;
 import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
@@ -60,6 +62,30 @@ public class FabricContainerItemTransferHandler implements TransferHandler<ItemS
                 context.getAdditionalSlots().iterator()), FabricResourceView::new);
     }
     
+    @Override
+    public boolean scan(ResourceVisitor<ItemStack> visitor) {
+        if (!visit(visitor, 0, context.getMainSlot())) return false;
+        int index = 1;
+        for (SingleSlotStorage<ItemVariant> slot : context.getAdditionalSlots()) {
+            if (!visit(visitor, index++, slot)) return false;
+        }
+        return true;
+    }
+    
+    private static boolean visit(ResourceVisitor<ItemStack> visitor, int index, StorageView<ItemVariant> slot) {
+        return test(slot, stack -> visitor.visit(index, stack));
+    }
+    
+    private static boolean test(StorageView<ItemVariant> slot, Predicate<ItemStack> predicate) {
+        if (slot.isResourceBlank()) return predicate.test(ItemStack.EMPTY);
+        ItemStack stack = ItemVariantCache.toTestStack(slot.getResource(), slot.getAmount());
+        try {
+            return predicate.test(stack);
+        } finally {
+            ItemVariantCache.releaseTestStack(stack);
+        }
+    }
+    
     @Override
     public int size() {
         return 1 + context.getAdditionalSlots().size();
@@ -83,7 +109,7 @@ public class FabricContainerItemTransferHandler implements TransferHandler<ItemS
         long inserted;
         
         try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
-            inserted = this.context.insert(ItemVariant.of(toInsert), toInsert.getCount(), nested);
+            inserted = this.context.insert(ItemVariantCache.toFabric(toInsert), toInsert.getCount(), nested);
             
             if (action == TransferAction.ACT) {
                 nested.commit();
@@ -99,7 +125,7 @@ public class FabricContainerItemTransferHandler implements TransferHandler<ItemS
         long extracted;
         
         try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
-            extracted = this.context.extract(ItemVariant.of(toExtract), toExtract.getCount(), nested);
+            extracted = this.context.extract(ItemVariantCache.toFabric(toExtract), toExtract.getCount(), nested);
             
             if (action == TransferAction.ACT) {
                 nested.commit();
@@ -113,7 +139,7 @@ public class FabricContainerItemTransferHandler implements TransferHandler<ItemS
     public ItemStack extract(Predicate<ItemStack> toExtract, long maxAmount, TransferAction action) {
         try (Transaction nested = Transaction.openNested(firstNonNull(this.transaction, Transaction.getCurrentUnsafe()))) {
             for (StorageView<ItemVariant> view : Iterables.concat(Collections.singletonList(context.getMainSlot()), context.getAdditionalSlots())) {
-                if (!view.isResourceBlank() && toExtract.test(view.getResource().toStack(toInt(view.getAmount())))) {
+                if (!view.isResourceBlank() && test(view, toExtract)) {
                     long extracted = view.extract(view.getResource(), maxAmount, nested);
                     
                     if (action == TransferAction.ACT) {
@@ -138,6 +164,11 @@ public class FabricContainerItemTransferHandler implements TransferHandler<ItemS
         return ItemStackHooks.copyWithCount(resource, toInt(amount));
     }
     
+    @Override
+    public ItemKey keyOf(ItemStack resource) {
+        return ItemKey.of(resource);
+    }
+    
     @Override
     public Object saveState() {
         throw new UnsupportedOperationException();
@@ -170,6 +201,18 @@ public class FabricContainerItemTransferHandler implements TransferHandler<ItemS
             return ItemStackHooks.copyWithCount(resource, toInt(amount));
         }
         
+        @Override
+        public ItemKey keyOf(ItemStack resource) {
+            return ItemKey.of(resource);
+        }
+        
+        @Override
+        public ItemKey key() {
+            if (storage.isResourceBlank() || storage.getAmount() <= 0) return ItemKey.EMPTY;
+            ItemVariant variant = storage.getResource();
+            return ItemKey.of(variant.getItem(), variant.getNbt());
+        }
+        
         @Override
         public long insert(ItemStack toInsert, TransferAction action) {
             if (toInsert.isEmpty()) return 0;
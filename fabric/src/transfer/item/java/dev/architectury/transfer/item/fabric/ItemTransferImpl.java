@@ -21,14 +21,17 @@ package dev.architectury.transfer.item.fabric;
 
 import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.TransferKey;
 import dev.architectury.transfer.fabric.FabricStorageTransferHandler;
 import dev.architectury.transfer.fabric.TransferHandlerStorage;
+import dev.architectury.transfer.item.ItemKey;
 import net.fabricmc.fabric.api.transfer.v1.item.ItemStorage;
 import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -38,13 +41,16 @@ import static dev.architectury.utils.Amount.toInt;
 
 @SuppressWarnings("UnstableApiUsage")
 public class ItemTransferImpl {
-    private static final Function<ItemStack, ItemVariant> TO_FABRIC = ItemVariant::of;
+    private static final Function<ItemStack, ItemVariant> TO_FABRIC = ItemVariantCache::toFabric;
     private static final FabricStorageTransferHandler.FunctionWithAmount<ItemVariant, ItemStack> FROM_FABRIC = (variant, amount) -> variant.toStack(toInt(amount));
     private static final FabricStorageTransferHandler.FunctionWithAmount<ItemStack, ItemStack> COPY_WITH_AMOUNT = (stack, amount) -> ItemStackHooks.copyWithCount(stack, toInt(amount));
     private static final Supplier<ItemStack> BLANK = () -> ItemStack.EMPTY;
     private static final Predicate<ItemStack> IS_EMPTY = ItemStack::isEmpty;
     private static final ToLongFunction<ItemStack> TO_AMOUNT = ItemStack::getCount;
-    private static final FabricStorageTransferHandler.TypeAdapter<ItemVariant, ItemStack> TYPE_ADAPTER = new FabricStorageTransferHandler.TypeAdapter<>(TO_FABRIC, FROM_FABRIC, COPY_WITH_AMOUNT, BLANK, IS_EMPTY, TO_AMOUNT);
+    private static final FabricStorageTransferHandler.FunctionWithAmount<ItemVariant, ItemStack> FROM_FABRIC_FOR_TEST = ItemVariantCache::toTestStack;
+    private static final Consumer<ItemStack> RELEASE_FOR_TEST = ItemVariantCache::releaseTestStack;
+    private static final Function<ItemStack, TransferKey<ItemStack>> TO_KEY = ItemKey::of;
+    private static final FabricStorageTransferHandler.TypeAdapter<ItemVariant, ItemStack> TYPE_ADAPTER = new FabricStorageTransferHandler.TypeAdapter<>(TO_FABRIC, FROM_FABRIC, COPY_WITH_AMOUNT, BLANK, IS_EMPTY, TO_AMOUNT, FROM_FABRIC_FOR_TEST, RELEASE_FOR_TEST, TO_KEY);
     
     @Nullable
     public static TransferHandler<ItemStack> wrap(@Nullable Object object) {
@@ -0,0 +1,107 @@
+/*
+ * This file is part of architectury.
+ * Copyright (C) 2020, 2021, 2022 architectury
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package dev.architectury.transfer.item.fabric;
+
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import static dev.architectury.utils.Amount.toInt;
+
+/**
+ * Per thread conversion cache between {@link ItemStack}s and {@link ItemVariant}s.
+ * <p>
+ * Fabric already caches the variants of items without NBT, but {@link ItemVariant#of(ItemStack)} copies the tag otherwise,
+ * so the last variant with NBT is remembered and reused as long as the stacks converted keep matching it.
+ * <p>
+ * The test stack is lent until it is released, conversions made while it is lent (e.g. by a predicate testing it)
+ * get a fresh stack, and a stack that comes back modified is not reused.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class ItemVariantCache {
+    private static final ThreadLocal<ItemVariantCache> CACHE = ThreadLocal.withInitial(ItemVariantCache::new);
+    @Nullable
+    private ItemVariant lastVariant;
+    @Nullable
+    private ItemVariant testVariant;
+    private ItemStack testStack = ItemStack.EMPTY;
+    private boolean testLent;
+    @Nullable
+    private CompoundTag testTag;
+    private int testCount;
+    
+    private ItemVariantCache() {
+    }
+    
+    static ItemVariant toFabric(ItemStack stack) {
+        CompoundTag tag = stack.getTag();
+        if (tag == null || stack.isEmpty()) return ItemVariant.of(stack);
+        return CACHE.get().toFabric(stack.getItem(), tag);
+    }
+    
+    /**
+     * Returns a stack of the given variant that is only meant to be tested, not kept nor modified.
+     * The stack must be handed back with {@link #releaseTestStack(ItemStack)} once it was tested.
+     */
+    static ItemStack toTestStack(ItemVariant variant, long amount) {
+        return CACHE.get().toTestStack0(variant, amount);
+    }
+    
+    static void releaseTestStack(ItemStack stack) {
+        CACHE.get().releaseTestStack0(stack);
+    }
+    
+    private ItemVariant toFabric(Item item, CompoundTag tag) {
+        ItemVariant variant = lastVariant;
+        if (variant == null || variant.getItem() != item || !variant.nbtMatches(tag)) {
+            variant = ItemVariant.of(item, tag);
+            lastVariant = variant;
+        }
+        return variant;
+    }
+    
+    private ItemStack toTestStack0(ItemVariant variant, long amount) {
+        if (testLent) {
+            // Reentrant conversion, the lent stack is still being tested
+            return variant.toStack(toInt(amount));
+        }
+        if (variant != testVariant && !variant.equals(testVariant)) {
+            testVariant = variant;
+            testStack = variant.toStack();
+            testTag = testStack.getTag();
+        }
+        testStack.setCount(toInt(amount));
+        testCount = testStack.getCount();
+        testLent = true;
+        return testStack;
+    }
+    
+    private void releaseTestStack0(ItemStack stack) {
+        if (stack != testStack || !testLent) return;
+        testLent = false;
+        if (testVariant == null || stack.getItem() != testVariant.getItem() || stack.getTag() != testTag || stack.getCount() != testCount) {
+            // The stack was modified, do not hand it out again
+            testVariant = null;
+            testStack = ItemStack.EMPTY;
+        }
+    }
+}
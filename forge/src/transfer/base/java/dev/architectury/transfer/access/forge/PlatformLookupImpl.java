@@ -21,10 +21,12 @@ package dev.architectury.transfer.access.forge;
 
 import dev.architectury.transfer.access.BlockLookup;
 import dev.architectury.transfer.access.BlockLookupAccess;
+import dev.architectury.transfer.access.BlockLookupCache;
 import dev.architectury.transfer.forge.ForgeBlockLookupRegistration;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.Block;
 import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.util.LazyOptional;
 
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -50,7 +52,13 @@ public class PlatformLookupImpl {
             Block block = state.getBlock();
             O handler = null;
             if (blockEntity != null) {
-                handler = blockEntity.getCapability(capability, direction).resolve().orElse(null);
+                LazyOptional<O> optional = blockEntity.getCapability(capability, direction);
+                // Let a cache that is querying this drop the handler once the capability is invalidated
+                Runnable invalidator = BlockLookupCache.currentInvalidator();
+                if (invalidator != null && optional.isPresent()) {
+                    optional.addListener($ -> invalidator.run());
+                }
+                handler = optional.resolve().orElse(null);
             }
             return wrapper.apply(handler);
         });
@@ -20,12 +20,15 @@
 package dev.architectury.transfer.energy.forge;
 
 import dev.architectury.transfer.TransferAction;
-import dev.architectury.transfer.energy.EnergyTransferHandler;
+import dev.architectury.transfer.energy.DistributionPolicy;
+import dev.architectury.transfer.energy.LongEnergyHandler;
 import dev.architectury.transfer.wrapper.single.SingleTransferHandler;
 import net.minecraftforge.energy.CapabilityEnergy;
 import net.minecraftforge.energy.IEnergyStorage;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 import static dev.architectury.utils.Amount.toInt;
 
 public class EnergyTransferImpl {
@@ -55,7 +58,49 @@ public class EnergyTransferImpl {
         return CapabilityEnergy.ENERGY;
     }
     
-    private static class ForgeTransferHandler implements EnergyTransferHandler {
+    public static long distributeImpl(SingleTransferHandler<Long> source, List<? extends SingleTransferHandler<Long>> targets, long maxTotal, DistributionPolicy policy) {
+        LongEnergyHandler from = LongEnergyHandler.of(source);
+        LongEnergyHandler[] to = new LongEnergyHandler[targets.size()];
+        for (int i = 0; i < to.length; i++) {
+            to[i] = LongEnergyHandler.of(targets.get(i));
+        }
+        
+        // without transactions the policy plans against simulated targets, the source then pays for exactly the plan,
+        // sources usually cannot take energy back so nothing is ever handed back to them
+        long available = from.extract(maxTotal, TransferAction.SIMULATE);
+        if (available <= 0) return 0;
+        long[] planned = new long[to.length];
+        long moved = policy.distribute(available, to.length, (target, amount) -> {
+            // simulate the running total, a second offer to the same target must not be accepted twice
+            long accepted = to[target].insert(planned[target] + amount, TransferAction.SIMULATE) - planned[target];
+            if (accepted <= 0) return 0;
+            accepted = Math.min(accepted, amount);
+            planned[target] += accepted;
+            return accepted;
+        });
+        if (moved <= 0) return 0;
+        long extracted = from.extract(moved, TransferAction.ACT);
+        if (extracted <= 0) return 0;
+        // the source paid less than simulated, take the difference off the last targets
+        for (int i = to.length - 1; i >= 0 && moved > extracted; i--) {
+            long cut = Math.min(planned[i], moved - extracted);
+            planned[i] -= cut;
+            moved -= cut;
+        }
+        long remaining = extracted;
+        for (int i = 0; i < to.length; i++) {
+            if (planned[i] > 0) {
+                remaining -= to[i].insert(Math.min(planned[i], remaining), TransferAction.ACT);
+            }
+        }
+        // a target took less than it simulated, offer the rest to every target before giving up on it
+        for (int i = 0; i < to.length && remaining > 0; i++) {
+            remaining -= to[i].insert(remaining, TransferAction.ACT);
+        }
+        return extracted - remaining;
+    }
+    
+    private static class ForgeTransferHandler implements LongEnergyHandler {
         private IEnergyStorage storage;
         
         private ForgeTransferHandler(IEnergyStorage storage) {
@@ -67,23 +112,25 @@ public class EnergyTransferImpl {
         }
         
         @Override
-        public Long getResource() {
-            return (long) storage.getEnergyStored();
+        public long getEnergy() {
+            return storage.getEnergyStored();
         }
         
         @Override
-        public long getCapacity(Long resource) {
+        public long getEnergyCapacity() {
             return storage.getMaxEnergyStored();
         }
         
         @Override
-        public long insert(Long toInsert, TransferAction action) {
-            return storage.extractEnergy(toInsert.intValue(), action == TransferAction.SIMULATE);
+        public long insert(long toInsert, TransferAction action) {
+            if (toInsert <= 0) return 0;
+            return storage.receiveEnergy(toInt(toInsert), action == TransferAction.SIMULATE);
         }
         
         @Override
-        public Long extract(Long toExtract, TransferAction action) {
-            return (long) storage.extractEnergy(toExtract.intValue(), action == TransferAction.SIMULATE);
+        public long extract(long toExtract, TransferAction action) {
+            if (toExtract <= 0) return 0;
+            return storage.extractEnergy(toInt(toExtract), action == TransferAction.SIMULATE);
         }
         
         @Override
@@ -98,30 +145,30 @@ public class EnergyTransferImpl {
     }
     
     public static class ArchEnergyStorage implements IEnergyStorage {
-        private SingleTransferHandler<Long> handler;
+        private LongEnergyHandler handler;
         
         public ArchEnergyStorage(SingleTransferHandler<Long> handler) {
-            this.handler = handler;
+            this.handler = LongEnergyHandler.of(handler);
         }
         
         @Override
         public int receiveEnergy(int toInsert, boolean simulate) {
-            return toInt(handler.insert((long) toInsert, simulate ? TransferAction.SIMULATE : TransferAction.ACT));
+            return toInt(handler.insert(toInsert, simulate ? TransferAction.SIMULATE : TransferAction.ACT));
         }
         
         @Override
         public int extractEnergy(int toExtract, boolean simulate) {
-            return toInt(handler.extract((long) toExtract, simulate ? TransferAction.SIMULATE : TransferAction.ACT).intValue());
+            return toInt(handler.extract(toExtract, simulate ? TransferAction.SIMULATE : TransferAction.ACT));
         }
         
         @Override
         public int getEnergyStored() {
-            return toInt(handler.getAmount());
+            return toInt(handler.getEnergy());
         }
         
         @Override
         public int getMaxEnergyStored() {
-            return toInt(handler.getResourceCapacity());
+            return toInt(handler.getEnergyCapacity());
         }
         
         @Override
@@ -22,6 +22,7 @@ package dev.architectury.transfer.fluid.forge;
 import dev.architectury.fluid.FluidStack;
 import dev.architectury.hooks.fluid.forge.FluidStackHooksForge;
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 import dev.architectury.transfer.access.BlockLookup;
@@ -42,9 +43,7 @@ import net.minecraftforge.fluids.capability.wrappers.FluidBlockWrapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -167,11 +166,23 @@ public class FluidTransferImpl {
     
     private static class ForgeTransferHandler implements FluidTransferHandler {
         private IFluidHandler handler;
+        private ForgeResourceView[] views = new ForgeResourceView[0];
         
         private ForgeTransferHandler(IFluidHandler handler) {
             this.handler = handler;
         }
         
+        private ForgeResourceView view(int index) {
+            if (index >= views.length) {
+                int oldLength = views.length;
+                views = Arrays.copyOf(views, Math.max(index + 1, handler.getTanks()));
+                for (int i = oldLength; i < views.length; i++) {
+                    views[i] = new ForgeResourceView(i);
+                }
+            }
+            return views[index];
+        }
+        
         public IFluidHandler getHandler() {
             return handler;
         }
@@ -181,6 +192,16 @@ public class FluidTransferImpl {
             return new Itr();
         }
         
+        @Override
+        public boolean scan(ResourceVisitor<FluidStack> visitor) {
+            for (int i = 0, tanks = handler.getTanks(); i < tanks; i++) {
+                net.minecraftforge.fluids.FluidStack forgeStack = handler.getFluidInTank(i);
+                FluidStack stack = forgeStack.isEmpty() ? FluidStack.empty() : FluidStackHooksForge.fromForge(forgeStack);
+                if (!visitor.visit(i, stack)) return false;
+            }
+            return true;
+        }
+        
         @Override
         public int size() {
             return handler.getTanks();
@@ -188,7 +209,7 @@ public class FluidTransferImpl {
         
         @Override
         public ResourceView<FluidStack> get(int index) {
-            return new ForgeResourceView(index);
+            return view(index);
         }
         
         @Override
@@ -206,8 +227,9 @@ public class FluidTransferImpl {
         public FluidStack extract(Predicate<FluidStack> toExtract, long maxAmount, TransferAction action) {
             for (int i = 0; i < handler.getTanks(); i++) {
                 net.minecraftforge.fluids.FluidStack forgeStack = handler.getFluidInTank(i);
+                if (forgeStack.isEmpty()) continue;
                 FluidStack stack = FluidStackHooksForge.fromForge(forgeStack);
-                if (!stack.isEmpty() && toExtract.test(stack)) {
+                if (toExtract.test(stack)) {
                     net.minecraftforge.fluids.FluidStack copy = forgeStack.copy();
                     copy.setAmount(toInt(maxAmount));
                     net.minecraftforge.fluids.FluidStack extracted = handler.drain(copy, getFluidAction(action));
@@ -219,6 +241,37 @@ public class FluidTransferImpl {
             return blank();
         }
         
+        @Override
+        public List<FluidStack> extractMatching(Predicate<FluidStack> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+            List<FluidStack> extracted = new ArrayList<>();
+            if (maxAmount <= 0 || maxTypes <= 0) return extracted;
+            List<net.minecraftforge.fluids.FluidStack> types = new ArrayList<>();
+            
+            for (int i = 0; i < handler.getTanks() && extracted.size() < maxTypes; i++) {
+                net.minecraftforge.fluids.FluidStack forgeStack = handler.getFluidInTank(i);
+                if (forgeStack.isEmpty()) continue;
+                boolean known = false;
+                for (net.minecraftforge.fluids.FluidStack type : types) {
+                    if (type.isFluidEqual(forgeStack)) {
+                        known = true;
+                        break;
+                    }
+                }
+                if (known) continue;
+                // draining by stack already collects the fluid from every tank, so every type is only visited once
+                net.minecraftforge.fluids.FluidStack copy = forgeStack.copy();
+                types.add(copy);
+                if (!toExtract.test(FluidStackHooksForge.fromForge(forgeStack))) continue;
+                copy.setAmount(toInt(maxAmount));
+                net.minecraftforge.fluids.FluidStack result = handler.drain(copy, getFluidAction(action));
+                if (!result.isEmpty()) {
+                    extracted.add(FluidStackHooksForge.fromForge(result));
+                }
+            }
+            
+            return extracted;
+        }
+        
         @Override
         public Object saveState() {
             throw new UnsupportedOperationException();
@@ -246,7 +299,7 @@ public class FluidTransferImpl {
                 if (i >= handler.getTanks())
                     throw new NoSuchElementException();
                 cursor = i + 1;
-                return new ForgeResourceView(i);
+                return view(i);
             }
             
             @Override
@@ -256,7 +309,7 @@ public class FluidTransferImpl {
                 int i = cursor;
                 if (i < size) {
                     for (; i < size; i++) {
-                        action.accept(new ForgeResourceView(i));
+                        action.accept(view(i));
                     }
                     cursor = i;
                 }
@@ -19,22 +19,23 @@
 
 package dev.architectury.transfer.item.forge;
 
-import dev.architectury.fluid.FluidStack;
+import dev.architectury.transfer.ResizableTransferHandler;
 import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 import dev.architectury.transfer.item.ItemTransferHandler;
 import dev.architectury.transfer.item.ItemTransferView;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
+import net.minecraftforge.server.ServerLifecycleHooks;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.AbstractList;
-import java.util.Iterator;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Predicate;
 
 import static dev.architectury.utils.Amount.toInt;
@@ -67,50 +68,105 @@ public class ItemTransferImpl {
     }
     
     public static class ArchItemHandler implements IItemHandler {
-        private static final Predicate<FluidStack> TRUE = stack -> true;
         private TransferHandler<ItemStack> handler;
+        /**
+         * The views of the handler, collected with a single iteration and reused until the handler changes its size,
+         * hoppers and pipes poll every slot of every face multiple times per tick.
+         */
+        private final List<ResourceView<ItemStack>> views = new ArrayList<>();
+        private int viewsVersion = -1;
+        /**
+         * The server tick the size of a handler without a size version was last checked at, the size is checked
+         * at most once per tick and after every transfer done through this handler.
+         */
+        private int sizeCheckedTick = Integer.MIN_VALUE;
         
         public ArchItemHandler(TransferHandler<ItemStack> handler) {
             this.handler = handler;
         }
         
+        private List<ResourceView<ItemStack>> getViews() {
+            boolean valid;
+            if (handler instanceof ResizableTransferHandler) {
+                int version = ((ResizableTransferHandler<ItemStack>) handler).getSizeVersion();
+                valid = version == viewsVersion;
+                viewsVersion = version;
+            } else {
+                MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+                int tick = server == null ? -1 : server.getTickCount();
+                if (tick == -1 || tick != sizeCheckedTick) {
+                    valid = views.size() == handler.size();
+                    sizeCheckedTick = tick;
+                } else {
+                    valid = true;
+                }
+            }
+            if (!valid) {
+                views.clear();
+                for (ResourceView<ItemStack> view : handler) {
+                    views.add(view);
+                }
+            }
+            return views;
+        }
+        
         @Override
         public int getSlots() {
-            return handler.size();
+            return getViews().size();
         }
         
         @NotNull
         @Override
         public ItemStack getStackInSlot(int index) {
-            return handler.get(index).getResource();
+            return getViews().get(index).getResource();
         }
         
         @Override
         public int getSlotLimit(int index) {
-            return toInt(handler.get(index).getResourceCapacity());
+            return toInt(getViews().get(index).getResourceCapacity());
         }
         
         @NotNull
         @Override
-        public ItemStack insertItem(int index, @NotNull ItemStack arg, boolean simulate) {
-            return null;
+        public ItemStack insertItem(int index, @NotNull ItemStack stack, boolean simulate) {
+            if (stack.isEmpty()) return ItemStack.EMPTY;
+            long inserted = handler.insertAt(index, stack, simulate ? TransferAction.SIMULATE : TransferAction.ACT);
+            if (!simulate) sizeCheckedTick = Integer.MIN_VALUE;
+            if (inserted <= 0) return stack;
+            if (inserted >= stack.getCount()) return ItemStack.EMPTY;
+            return ItemHandlerHelper.copyStackWithSize(stack, stack.getCount() - toInt(inserted));
         }
         
         @NotNull
         @Override
         public ItemStack extractItem(int index, int maxAmount, boolean simulate) {
-            return null;
+            if (maxAmount <= 0) return ItemStack.EMPTY;
+            if (!simulate) sizeCheckedTick = Integer.MIN_VALUE;
+            return handler.extractAt(index, maxAmount, simulate ? TransferAction.SIMULATE : TransferAction.ACT);
         }
         
         @Override
         public boolean isItemValid(int index, @NotNull ItemStack stack) {
-            ItemStack content = handler.get(index).getResource();
-            return content.getItem() == stack.getItem() && Objects.equals(content.getTag(), stack.getTag());
+            // Ask the slot itself, so the filters of the handler are respected
+            if (stack.isEmpty()) return false;
+            return getViews().get(index).insert(ItemHandlerHelper.copyStackWithSize(stack, 1), TransferAction.SIMULATE) > 0;
         }
     }
     
     private static class ForgeTransferHandler implements ItemTransferHandler {
         private IItemHandler handler;
+        private ForgeResourceView[] views = new ForgeResourceView[0];
+        private final List<ResourceView<ItemStack>> viewList = new AbstractList<ResourceView<ItemStack>>() {
+            @Override
+            public int size() {
+                return handler.getSlots();
+            }
+            
+            @Override
+            public ResourceView<ItemStack> get(int index) {
+                return view(index);
+            }
+        };
         
         public ForgeTransferHandler(IItemHandler handler) {
             this.handler = handler;
@@ -120,19 +176,28 @@ public class ItemTransferImpl {
             return handler;
         }
         
+        private ForgeResourceView view(int index) {
+            if (index >= views.length) {
+                int oldLength = views.length;
+                views = Arrays.copyOf(views, Math.max(index + 1, handler.getSlots()));
+                for (int i = oldLength; i < views.length; i++) {
+                    views[i] = new ForgeResourceView(i);
+                }
+            }
+            return views[index];
+        }
+        
         @Override
         public Iterator<ResourceView<ItemStack>> iterator() {
-            return new AbstractList<ResourceView<ItemStack>>() {
-                @Override
-                public int size() {
-                    return handler.getSlots();
-                }
-                
-                @Override
-                public ResourceView<ItemStack> get(int index) {
-                    return new ForgeResourceView(index);
-                }
-            }.iterator();
+            return viewList.iterator();
+        }
+        
+        @Override
+        public boolean scan(ResourceVisitor<ItemStack> visitor) {
+            for (int i = 0, slots = handler.getSlots(); i < slots; i++) {
+                if (!visitor.visit(i, handler.getStackInSlot(i))) return false;
+            }
+            return true;
         }
         
         @Override
@@ -142,7 +207,7 @@ public class ItemTransferImpl {
         
         @Override
         public ResourceView<ItemStack> get(int index) {
-            return new ForgeResourceView(index);
+            return view(index);
         }
         
         @Override
@@ -176,16 +241,19 @@ public class ItemTransferImpl {
         
         @Override
         public ItemStack extract(Predicate<ItemStack> toExtract, long maxAmount, TransferAction action) {
+            boolean simulate = action == TransferAction.SIMULATE;
             ItemStack type = null;
             int extractedAmount = 0;
             
             for (int i = 0; i < handler.getSlots(); i++) {
+                // getStackInSlot must not be modified, it is only tested here
                 ItemStack slot = handler.getStackInSlot(i);
                 if (slot.isEmpty()) continue;
                 
                 if (type == null ? toExtract.test(slot) : ItemHandlerHelper.canItemStacksStack(type, slot)) {
-                    ItemStack extracted = handler.extractItem(i, toInt(maxAmount - extractedAmount), action == TransferAction.SIMULATE);
-                    if (type == null && !extracted.isEmpty()) {
+                    ItemStack extracted = handler.extractItem(i, toInt(maxAmount - extractedAmount), simulate);
+                    if (extracted.isEmpty()) continue;
+                    if (type == null) {
                         type = extracted;
                     }
                     extractedAmount += extracted.getCount();
@@ -198,6 +266,67 @@ public class ItemTransferImpl {
             return type == null ? blank() : copyWithAmount(type, extractedAmount);
         }
         
+        @Override
+        public long[] insertAll(Collection<ItemStack> toInsert, TransferAction action) {
+            List<ItemStack> stacks = toInsert instanceof List ? (List<ItemStack>) toInsert : new ArrayList<>(toInsert);
+            int[] remaining = new int[stacks.size()];
+            long[] inserted = new long[stacks.size()];
+            int pending = 0;
+            for (int i = 0; i < remaining.length; i++) {
+                remaining[i] = stacks.get(i).getCount();
+                if (remaining[i] > 0) pending++;
+            }
+            
+            for (int slot = 0; slot < handler.getSlots() && pending > 0; slot++) {
+                ItemStack current = handler.getStackInSlot(slot);
+                
+                for (int i = 0; i < remaining.length; i++) {
+                    if (remaining[i] <= 0) continue;
+                    ItemStack stack = stacks.get(i);
+                    if (!current.isEmpty() && !ItemHandlerHelper.canItemStacksStack(current, stack)) continue;
+                    ItemStack left = handler.insertItem(slot, copyWithAmount(stack, remaining[i]), action == TransferAction.SIMULATE);
+                    int amount = remaining[i] - left.getCount();
+                    if (amount > 0) {
+                        remaining[i] -= amount;
+                        inserted[i] += amount;
+                        if (remaining[i] <= 0) pending--;
+                        break;
+                    }
+                }
+            }
+            
+            return inserted;
+        }
+        
+        @Override
+        public List<ItemStack> extractMatching(Predicate<ItemStack> toExtract, long maxAmount, int maxTypes, TransferAction action) {
+            List<ItemStack> extracted = new ArrayList<>();
+            if (maxAmount <= 0 || maxTypes <= 0) return extracted;
+            
+            for (int slot = 0; slot < handler.getSlots(); slot++) {
+                ItemStack current = handler.getStackInSlot(slot);
+                if (current.isEmpty()) continue;
+                ItemStack type = null;
+                for (ItemStack stack : extracted) {
+                    if (ItemHandlerHelper.canItemStacksStack(stack, current)) {
+                        type = stack;
+                        break;
+                    }
+                }
+                if (type == null) {
+                    if (extracted.size() >= maxTypes || !toExtract.test(current)) continue;
+                    ItemStack result = handler.extractItem(slot, toInt(maxAmount), action == TransferAction.SIMULATE);
+                    if (!result.isEmpty()) {
+                        extracted.add(result.copy());
+                    }
+                } else if (type.getCount() < maxAmount) {
+                    type.grow(handler.extractItem(slot, toInt(maxAmount - type.getCount()), action == TransferAction.SIMULATE).getCount());
+                }
+            }
+            
+            return extracted;
+        }
+        
         @Override
         public Object saveState() {
             throw new UnsupportedOperationException();
@@ -236,7 +365,7 @@ public class ItemTransferImpl {
             
             @Override
             public ItemStack extract(ItemStack toExtract, TransferAction action) {
-                if (toExtract.isEmpty()) return blank();
+                if (toExtract.isEmpty() || !ItemHandlerHelper.canItemStacksStack(toExtract, handler.getStackInSlot(index))) return blank();
                 return handler.extractItem(index, toExtract.getCount(), action == TransferAction.SIMULATE);
             }
             
@@ -132,6 +132,29 @@ public interface IConnectableItemAutoIO {
      */
     boolean runNow(DimPos connectablePos, TileMain main);
     
+    /**
+     * The amount of ticks between two operations of this storage. The network main schedules the storage accordingly, and only asks
+     * {@link #isOperationAllowed(DimPos, TileMain)} once it is due.
+     * <p>
+     * The default of 1 keeps storages that only implement {@link #runNow(DimPos, TileMain)} running every tick as before.
+     *
+     * @return the interval in ticks, at least 1
+     */
+    default int getTickInterval() {
+        return 1;
+    }
+    
+    /**
+     * Called when this storage is due according to {@link #getTickInterval()}, to check conditions other than the cooldown.
+     *
+     * @param connectablePos The position of your block, including the world
+     * @param main           The network main. Use this to e.g. query amount of items.
+     * @return Whether or not this storage should be processed now.
+     */
+    default boolean isOperationAllowed(DimPos connectablePos, TileMain main) {
+        return runNow(connectablePos, main);
+    }
+    
     /**
      * If this block is used with an ioDirection of OUT and has its getSupportedTransferDirection set to OUT, then this list will be consolidated by the main and available items in the network matching
      * the {@link IItemStackMatcher}s in the list will be exported via the canTransfer() and transfer() methods above.
@@ -25,6 +25,7 @@
 
 package com.lothrazar.storagenetwork.api;
 
+import dev.architectury.transfer.ResourceVisitor;
 import net.minecraft.world.item.ItemStack;
 
 import java.util.List;
@@ -47,6 +48,23 @@ public interface IConnectableLink {
      */
     List<ItemStack> getStoredStacks(boolean isFiltered);
     
+    /**
+     * Visits every slot of this storage without copying the stacks, stacks that are filtered out are visited as empty.
+     * The visited stacks must not be modified or kept.
+     * <p>
+     * isFiltered : if true , it does apply the filter. if not it visits all stacks ignoring filter
+     *
+     * @param visitor the visitor of the slots
+     */
+    default void scanStoredStacks(boolean isFiltered, ResourceVisitor<ItemStack> visitor) {
+        List<ItemStack> stacks = getStoredStacks(isFiltered);
+        for (int i = 0; i < stacks.size(); i++) {
+            if (!visitor.visit(i, stacks.get(i))) {
+                return;
+            }
+        }
+    }
+    
     /**
      * This is called on your capability every time the network tries to insert a stack into your storage.
      * <p>
@@ -26,6 +26,7 @@
 package com.lothrazar.storagenetwork.block;
 
 import com.lothrazar.storagenetwork.block.cable.BlockCable;
+import com.lothrazar.storagenetwork.block.main.TileMain;
 import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -60,6 +61,25 @@ public abstract class BaseBlock extends BaseEntityBlock {
         tooltip.add(t);
     }
     
+    @SuppressWarnings("deprecation")
+    @Override
+    public void onPlace(BlockState state, Level worldIn, BlockPos pos, BlockState oldState, boolean isMoving) {
+        super.onPlace(state, worldIn, pos, oldState, isMoving);
+        if (!oldState.is(state.getBlock())) {
+            TileMain.onConnectableChanged(worldIn, pos, true);
+        }
+    }
+    
+    @SuppressWarnings("deprecation")
+    @Override
+    public void onRemove(BlockState state, Level worldIn, BlockPos pos, BlockState newState, boolean isMoving) {
+        if (!state.is(newState.getBlock())) {
+            // Before the block entity is gone, it still knows its network
+            TileMain.onConnectableChanged(worldIn, pos, false);
+        }
+        super.onRemove(state, worldIn, pos, newState, isMoving);
+    }
+    
     protected void updateConnection(Level worldIn, BlockPos pos, BlockState stateIn) {
         BlockState facingState;
         for (Direction d : Direction.values()) {
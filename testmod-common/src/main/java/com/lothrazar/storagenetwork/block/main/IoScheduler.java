@@ -0,0 +1,123 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.block.main;
+
+import com.lothrazar.storagenetwork.api.DimPos;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Timing wheel of the auto IO cables of a network, so that a tick only touches the cables that are due.
+ * <p>
+ * Every cable sits in the bucket of its next due tick. Cables that join the network start at a phase derived from their
+ * position, so cables with the same interval do not all fire on the same tick.
+ */
+public class IoScheduler {
+    
+    private static final int WHEEL_SIZE = 256;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private final List<List<DimPos>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final Object2LongMap<DimPos> dueTicks = new Object2LongOpenHashMap<>();
+    
+    public IoScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        dueTicks.defaultReturnValue(-1);
+    }
+    
+    public boolean isScheduled(DimPos pos) {
+        return dueTicks.containsKey(pos);
+    }
+    
+    /**
+     * Schedules a cable that just joined the network, within its first interval.
+     */
+    public void scheduleFirst(DimPos pos, long now, int interval) {
+        schedule(pos, now + 1 + Math.floorMod(pos.hashCode(), Math.max(1, interval)));
+    }
+    
+    /**
+     * Schedules a cable at the given tick, replacing its previous schedule.
+     */
+    public void schedule(DimPos pos, long dueTick) {
+        dueTicks.put(pos, dueTick);
+        wheel.get((int) (dueTick & MASK)).add(pos);
+    }
+    
+    public void remove(DimPos pos) {
+        // The bucket entry is dropped the next time its bucket comes up
+        dueTicks.removeLong(pos);
+    }
+    
+    /**
+     * Drops every cable that is not part of {@code valid} anymore.
+     */
+    public void retain(Collection<DimPos> valid) {
+        dueTicks.keySet().removeIf(pos -> !valid.contains(pos));
+    }
+    
+    public void clear() {
+        dueTicks.clear();
+        for (List<DimPos> bucket : wheel) {
+            bucket.clear();
+        }
+    }
+    
+    /**
+     * Takes the cables that are due at {@code now} out of the wheel, they have to be scheduled again once they ran.
+     */
+    public List<DimPos> poll(long now) {
+        int index = (int) (now & MASK);
+        List<DimPos> bucket = wheel.get(index);
+        if (bucket.isEmpty()) {
+            return List.of();
+        }
+        List<DimPos> due = new ArrayList<>();
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            DimPos pos = bucket.get(i);
+            long dueTick = dueTicks.getLong(pos);
+            if (dueTick == -1 || (dueTick & MASK) != index) {
+                // removed, or rescheduled into another bucket
+                continue;
+            }
+            if (dueTick > now) {
+                // more than a full turn of the wheel away
+                bucket.set(kept++, pos);
+                continue;
+            }
+            dueTicks.removeLong(pos);
+            due.add(pos);
+        }
+        bucket.subList(kept, bucket.size()).clear();
+        return due;
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.block.main;
+
+import com.lothrazar.storagenetwork.api.DimPos;
+import dev.architectury.transfer.ResourceVisitor;
+import dev.architectury.transfer.item.ItemKey;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Network wide index of the items held by the storages of a {@link TileMain}.
+ * <p>
+ * Every distinct item + NBT combination keeps its total count and the storages it was seen in. The index is only ever
+ * updated with deltas: transfers done through the network are applied as they happen, and changes done from the outside
+ * (hoppers, players, other mods) are picked up whenever a single storage is reconciled against its previous contribution.
+ * <p>
+ * Every storage keeps a snapshot of the item and count of each of its slots, a reconcile only touches the slots that
+ * differ from it. Storages that were changed through the network since their last reconcile have no snapshot, those are
+ * compared by their totals instead.
+ */
+public class NetworkItemIndex {
+    
+    private final Map<ItemKey, Entry> entries = new LinkedHashMap<>();
+    private final Map<DimPos, Object2LongMap<ItemKey>> sources = new HashMap<>();
+    private final Map<DimPos, Snapshot> snapshots = new HashMap<>();
+    
+    /**
+     * Records that {@code count} items of the given stack were moved into the storage at {@code source}.
+     */
+    public void add(DimPos source, ItemStack stack, long count) {
+        if (stack.isEmpty() || count <= 0) {
+            return;
+        }
+        snapshots.remove(source);
+        change(source, ItemKey.of(stack), count);
+    }
+    
+    /**
+     * Records that {@code count} items of the given stack were moved out of the storage at {@code source}.
+     */
+    public void remove(DimPos source, ItemStack stack, long count) {
+        if (stack.isEmpty() || count <= 0) {
+            return;
+        }
+        snapshots.remove(source);
+        ItemKey key = ItemKey.of(stack);
+        Object2LongMap<ItemKey> contribution = sources.get(source);
+        long known = contribution == null ? 0 : contribution.getLong(key);
+        // Never go below what we have seen, the next reconcile will correct the rest
+        change(source, key, -Math.min(known, count));
+    }
+    
+    /**
+     * Compares the current contents of a storage with what it contributed so far and applies the difference.
+     *
+     * @param source the position of the storage
+     * @param scan   visits the slots of the storage, stacks that should not be indexed are visited as empty
+     */
+    public void reconcile(DimPos source, Consumer<ResourceVisitor<ItemStack>> scan) {
+        Snapshot snapshot = snapshots.get(source);
+        if (snapshot != null && sources.containsKey(source)) {
+            int size = snapshot.size;
+            snapshot.size = 0;
+            try {
+                scan.accept((index, stack) -> {
+                    snapshot.update(source, index, stack);
+                    return true;
+                });
+            } catch (RuntimeException e) {
+                // Part of the slots may have been applied, compare the totals next time
+                snapshots.remove(source);
+                throw e;
+            }
+            // Slots that are gone have been emptied
+            int visited = snapshot.size;
+            for (int index = visited; index < size; index++) {
+                snapshot.update(source, index, ItemStack.EMPTY);
+            }
+            snapshot.size = visited;
+            return;
+        }
+        Snapshot fresh = new Snapshot();
+        scan.accept((index, stack) -> {
+            fresh.set(index, stack.isEmpty() ? null : ItemKey.of(stack), stack.getCount());
+            return true;
+        });
+        Object2LongMap<ItemKey> current = new Object2LongOpenHashMap<>();
+        for (int index = 0; index < fresh.size; index++) {
+            if (fresh.keys[index] != null) {
+                current.mergeLong(fresh.keys[index], fresh.counts[index], Long::sum);
+            }
+        }
+        Object2LongMap<ItemKey> previous = sources.get(source);
+        if (previous != null) {
+            for (Object2LongMap.Entry<ItemKey> entry : new Object2LongOpenHashMap<>(previous).object2LongEntrySet()) {
+                long delta = current.getLong(entry.getKey()) - entry.getLongValue();
+                if (delta != 0) {
+                    change(source, entry.getKey(), delta);
+                }
+            }
+        }
+        for (Object2LongMap.Entry<ItemKey> entry : current.object2LongEntrySet()) {
+            if (previous == null || !previous.containsKey(entry.getKey())) {
+                change(source, entry.getKey(), entry.getLongValue());
+            }
+        }
+        sources.computeIfAbsent(source, $ -> new Object2LongOpenHashMap<>());
+        snapshots.put(source, fresh);
+    }
+    
+    public boolean hasSource(DimPos source) {
+        return sources.containsKey(source);
+    }
+    
+    /**
+     * Drops everything that was contributed by the storage at {@code source}.
+     */
+    public void removeSource(DimPos source) {
+        Object2LongMap<ItemKey> contribution = sources.get(source);
+        if (contribution == null) {
+            return;
+        }
+        for (Object2LongMap.Entry<ItemKey> entry : new Object2LongOpenHashMap<>(contribution).object2LongEntrySet()) {
+            change(source, entry.getKey(), -entry.getLongValue());
+        }
+        sources.remove(source);
+        snapshots.remove(source);
+    }
+    
+    /**
+     * Drops every storage that is not part of {@code valid} anymore.
+     */
+    public void retainSources(Collection<DimPos> valid) {
+        for (DimPos source : new ArrayList<>(sources.keySet())) {
+            if (!valid.contains(source)) {
+                removeSource(source);
+            }
+        }
+    }
+    
+    public void clear() {
+        entries.clear();
+        sources.clear();
+        snapshots.clear();
+    }
+    
+    /**
+     * @return a fresh list of stacks, one per distinct item and NBT, with their network wide counts
+     */
+    public List<ItemStack> getStacks() {
+        List<ItemStack> stacks = new ArrayList<>(entries.size());
+        for (Map.Entry<ItemKey, Entry> entry : entries.entrySet()) {
+            stacks.add(entry.getKey().toStack((int) Math.min(entry.getValue().count, Integer.MAX_VALUE)));
+        }
+        return stacks;
+    }
+    
+    /**
+     * @param order the storages in the order their items should be listed, e.g. by priority
+     * @return a fresh list of stacks, one per distinct item and NBT, in the order they are held by the given storages
+     */
+    public List<ItemStack> getStacks(List<DimPos> order) {
+        Set<ItemKey> keys = new LinkedHashSet<>();
+        for (DimPos source : order) {
+            Snapshot snapshot = snapshots.get(source);
+            if (snapshot != null) {
+                for (int index = 0; index < snapshot.size; index++) {
+                    if (snapshot.keys[index] != null) {
+                        keys.add(snapshot.keys[index]);
+                    }
+                }
+            } else {
+                Object2LongMap<ItemKey> contribution = sources.get(source);
+                if (contribution != null) {
+                    keys.addAll(contribution.keySet());
+                }
+            }
+        }
+        keys.addAll(entries.keySet());
+        List<ItemStack> stacks = new ArrayList<>(keys.size());
+        for (ItemKey key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                stacks.add(key.toStack((int) Math.min(entry.count, Integer.MAX_VALUE)));
+            }
+        }
+        return stacks;
+    }
+    
+    public long getAmount(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return 0;
+        }
+        Entry entry = entries.get(ItemKey.of(stack));
+        return entry == null ? 0 : entry.count;
+    }
+    
+    /**
+     * Sums up the counts of every indexed item that matches {@code predicate}, without creating any stack.
+     */
+    public long getAmount(Predicate<ItemStack> predicate) {
+        long total = 0;
+        for (Map.Entry<ItemKey, Entry> entry : entries.entrySet()) {
+            if (predicate.test(entry.getValue().template(entry.getKey()))) {
+                total += entry.getValue().count;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * @return the storages that currently hold the given item, never {@code null}
+     */
+    public Set<DimPos> getSources(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return getSources(ItemKey.of(stack));
+    }
+    
+    /**
+     * @return the storages that currently hold the given item, never {@code null}
+     */
+    public Set<DimPos> getSources(ItemKey key) {
+        Entry entry = entries.get(key);
+        return entry == null ? Collections.emptySet() : Collections.unmodifiableSet(entry.sources);
+    }
+    
+    /**
+     * @return a fresh set of the storages that currently hold any item matching {@code predicate}
+     */
+    public Set<DimPos> getSources(Predicate<ItemStack> predicate) {
+        Set<DimPos> result = new HashSet<>();
+        for (Map.Entry<ItemKey, Entry> entry : entries.entrySet()) {
+            if (predicate.test(entry.getValue().template(entry.getKey()))) {
+                result.addAll(entry.getValue().sources);
+            }
+        }
+        return result;
+    }
+    
+    private void change(DimPos source, ItemKey key, long delta) {
+        Object2LongMap<ItemKey> contribution = sources.computeIfAbsent(source, $ -> new Object2LongOpenHashMap<>());
+        long contributed = contribution.getLong(key) + delta;
+        if (contributed <= 0) {
+            contribution.removeLong(key);
+        } else {
+            contribution.put(key, contributed);
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (delta <= 0) {
+                return;
+            }
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        entry.count += delta;
+        if (contributed <= 0) {
+            entry.sources.remove(source);
+        } else {
+            entry.sources.add(source);
+        }
+        if (entry.count <= 0 || entry.sources.isEmpty()) {
+            entries.remove(key);
+        }
+    }
+    
+    /**
+     * The item and count of every slot of a storage, as of its last reconcile.
+     */
+    private class Snapshot {
+        private ItemKey[] keys = new ItemKey[0];
+        private int[] counts = new int[0];
+        private int size;
+        
+        private void set(int index, ItemKey key, int count) {
+            if (index >= keys.length) {
+                int length = Math.max(index + 1, keys.length * 2);
+                keys = Arrays.copyOf(keys, length);
+                counts = Arrays.copyOf(counts, length);
+            }
+            keys[index] = key;
+            counts[index] = count;
+            size = Math.max(size, index + 1);
+        }
+        
+        /**
+         * Applies the difference between the slot and its previous item to the index.
+         */
+        private void update(DimPos source, int index, ItemStack stack) {
+            ItemKey previous = index < keys.length ? keys[index] : null;
+            int previousCount = previous == null ? 0 : counts[index];
+            if (previous != null && !stack.isEmpty() && previous.matches(stack)) {
+                if (stack.getCount() != previousCount) {
+                    change(source, previous, stack.getCount() - previousCount);
+                }
+                set(index, previous, stack.getCount());
+                return;
+            }
+            if (previous != null) {
+                change(source, previous, -previousCount);
+            }
+            if (stack.isEmpty()) {
+                set(index, null, 0);
+                return;
+            }
+            ItemKey key = ItemKey.of(stack);
+            change(source, key, stack.getCount());
+            set(index, key, stack.getCount());
+        }
+    }
+    
+    private static class Entry {
+        private long count;
+        private final Set<DimPos> sources = new HashSet<>();
+        private ItemStack template;
+        
+        /**
+         * @return a single item stack of the key, only ever used for testing predicates
+         */
+        private ItemStack template(ItemKey key) {
+            if (template == null) {
+                template = key.toStack(1);
+            }
+            return template;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.block.main;
+
+import com.lothrazar.storagenetwork.api.DimPos;
+import dev.architectury.transfer.item.ItemKey;
+
+import java.util.*;
+
+/**
+ * Remembers which storages of a network recently took an item, so that imports go straight to them.
+ * <p>
+ * Every item keeps a short list of candidate storages, the most recent successful one first. Storages that rejected an
+ * item while having no empty slot left are flagged as full, and are skipped when looking for a new home for an item, until
+ * something is extracted from them.
+ */
+public class NetworkRoutingTable {
+    
+    private static final int MAX_ROUTES = 4;
+    private final Map<ItemKey, List<DimPos>> routes = new HashMap<>();
+    private final Set<DimPos> knownFull = new HashSet<>();
+    
+    /**
+     * @return a copy of the candidate storages of the item, best first
+     */
+    public List<DimPos> getRoutes(ItemKey key) {
+        List<DimPos> candidates = routes.get(key);
+        return candidates == null ? Collections.emptyList() : new ArrayList<>(candidates);
+    }
+    
+    /**
+     * Records that the storage at {@code pos} took some of the item, making it the first candidate.
+     */
+    public void learn(ItemKey key, DimPos pos) {
+        List<DimPos> candidates = routes.computeIfAbsent(key, $ -> new ArrayList<>(MAX_ROUTES));
+        if (!candidates.isEmpty() && candidates.get(0).equals(pos)) {
+            return;
+        }
+        candidates.remove(pos);
+        candidates.add(0, pos);
+        if (candidates.size() > MAX_ROUTES) {
+            candidates.remove(MAX_ROUTES);
+        }
+    }
+    
+    public void forget(ItemKey key, DimPos pos) {
+        List<DimPos> candidates = routes.get(key);
+        if (candidates != null && candidates.remove(pos) && candidates.isEmpty()) {
+            routes.remove(key);
+        }
+    }
+    
+    public boolean isKnownFull(DimPos pos) {
+        return knownFull.contains(pos);
+    }
+    
+    public void markFull(DimPos pos) {
+        knownFull.add(pos);
+    }
+    
+    /**
+     * Clears the full flag of a storage, e.g. after something was extracted from it.
+     */
+    public void clearFull(DimPos pos) {
+        knownFull.remove(pos);
+    }
+    
+    /**
+     * Drops every storage that is not part of {@code storages} anymore.
+     */
+    public void retain(Collection<DimPos> storages) {
+        knownFull.retainAll(storages);
+        Iterator<List<DimPos>> iterator = routes.values().iterator();
+        while (iterator.hasNext()) {
+            List<DimPos> candidates = iterator.next();
+            candidates.retainAll(storages);
+            if (candidates.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    public void clear() {
+        routes.clear();
+        knownFull.clear();
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.block.main;
+
+import com.lothrazar.storagenetwork.api.DimPos;
+import com.lothrazar.storagenetwork.api.IConnectable;
+import com.lothrazar.storagenetwork.registry.StorageNetworkCapabilities;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.ChunkAccess;
+
+import java.util.*;
+
+/**
+ * The connectables reachable from a {@link TileMain}, kept up to date incrementally.
+ * <p>
+ * Placed connectables only explore the part of the network that is new, and broken leaves are simply dropped. Only breaks
+ * that may split the network, and explicit refreshes, fall back to a full rebuild. Every traversal is iterative and
+ * limited to a budget of visited positions per tick, so huge cable runs are spread over several ticks instead of stalling
+ * one. Members in unloaded chunks are kept, and unloaded positions next to the network are remembered so that the network
+ * can grow into them once their chunk is loaded.
+ */
+public class NetworkTopology {
+    
+    private final Set<DimPos> members = new LinkedHashSet<>();
+    /**
+     * Unloaded positions next to the network, mapped to the member that found them.
+     */
+    private final Map<DimPos, DimPos> frontier = new HashMap<>();
+    private final Deque<DimPos> expandQueue = new ArrayDeque<>();
+    private final Deque<DimPos> added = new ArrayDeque<>();
+    private final Deque<DimPos> removed = new ArrayDeque<>();
+    /**
+     * Members that joined since the last {@link #drainJoined()}.
+     */
+    private final Set<DimPos> joined = new LinkedHashSet<>();
+    private Set<DimPos> rebuilt;
+    private Deque<DimPos> rebuildQueue;
+    private boolean rebuildRequested = true;
+    
+    /**
+     * @return the current members, must not be modified
+     */
+    public Set<DimPos> getMembers() {
+        return Collections.unmodifiableSet(members);
+    }
+    
+    /**
+     * @return the members that joined since the last call, in the order they joined
+     */
+    public Set<DimPos> drainJoined() {
+        Set<DimPos> result = new LinkedHashSet<>(joined);
+        joined.clear();
+        return result;
+    }
+    
+    public void requestRebuild() {
+        rebuildRequested = true;
+    }
+    
+    /**
+     * Records that a connectable was placed at {@code pos}, it is explored during the next {@link #update(DimPos, int)}.
+     */
+    public void nodeAdded(DimPos pos) {
+        added.add(pos);
+    }
+    
+    /**
+     * Records that the connectable at {@code pos} was broken, it is dropped during the next {@link #update(DimPos, int)}.
+     */
+    public void nodeRemoved(DimPos pos) {
+        removed.add(pos);
+    }
+    
+    /**
+     * Lets the network grow into the unloaded positions next to it whose chunk got loaded since.
+     */
+    public void checkFrontier() {
+        Iterator<Map.Entry<DimPos, DimPos>> iterator = frontier.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<DimPos, DimPos> entry = iterator.next();
+            if (entry.getKey().isLoaded()) {
+                iterator.remove();
+                expandQueue.add(entry.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Applies the recorded changes and advances the pending traversals by at most {@code budget} positions.
+     *
+     * @param root the position of the main block
+     * @return whether the members changed
+     */
+    public boolean update(DimPos root, int budget) {
+        boolean changed = false;
+        DimPos pos;
+        while ((pos = removed.poll()) != null) {
+            changed |= removeMember(root, pos);
+        }
+        while ((pos = added.poll()) != null) {
+            if (members.contains(pos)) {
+                continue;
+            }
+            // The new connectable is reached from its neighbours that are already part of the network
+            for (Direction direction : Direction.values()) {
+                DimPos neighbour = pos.offset(direction);
+                if (neighbour.equals(root) || members.contains(neighbour)) {
+                    expandQueue.add(neighbour);
+                }
+            }
+        }
+        if (rebuildRequested) {
+            rebuildRequested = false;
+            rebuilt = new HashSet<>();
+            rebuildQueue = new ArrayDeque<>();
+            rebuildQueue.add(root);
+            frontier.clear();
+        }
+        int steps = 0;
+        while (steps < budget && (pos = expandQueue.poll()) != null) {
+            changed |= visit(root, pos, members, expandQueue);
+            steps++;
+        }
+        if (rebuildQueue != null) {
+            while (steps < budget && (pos = rebuildQueue.poll()) != null) {
+                visit(root, pos, rebuilt, rebuildQueue);
+                steps++;
+            }
+            if (rebuildQueue.isEmpty()) {
+                if (!rebuilt.equals(members)) {
+                    for (DimPos member : rebuilt) {
+                        if (!members.contains(member)) {
+                            joined.add(member);
+                        }
+                    }
+                    joined.retainAll(rebuilt);
+                    members.clear();
+                    members.addAll(rebuilt);
+                    frontier.values().removeIf(source -> !source.equals(root) && !members.contains(source));
+                    changed = true;
+                }
+                rebuilt = null;
+                rebuildQueue = null;
+            }
+        }
+        return changed;
+    }
+    
+    private boolean removeMember(DimPos root, DimPos pos) {
+        if (rebuilt != null) {
+            rebuilt.remove(pos);
+        }
+        if (!members.remove(pos)) {
+            return false;
+        }
+        joined.remove(pos);
+        frontier.values().removeIf(pos::equals);
+        // Without more than one neighbour in the network the rest of it stays connected, otherwise it may have been split
+        int neighbours = 0;
+        for (Direction direction : Direction.values()) {
+            DimPos neighbour = pos.offset(direction);
+            if (neighbour.equals(root) || members.contains(neighbour)) {
+                neighbours++;
+            }
+        }
+        if (neighbours > 1) {
+            rebuildRequested = true;
+        }
+        return true;
+    }
+    
+    /**
+     * Looks at the six neighbours of {@code from} and adds the connectables that are not part of {@code set} yet.
+     *
+     * @return whether anything was added
+     */
+    private boolean visit(DimPos root, DimPos from, Set<DimPos> set, Deque<DimPos> queue) {
+        if (from == null || from.getWorld() == null) {
+            return false;
+        }
+        if (!from.isLoaded()) {
+            frontier.put(from, from);
+            return false;
+        }
+        boolean changed = false;
+        for (Direction direction : Direction.values()) {
+            DimPos lookPos = from.offset(direction);
+            if (set.contains(lookPos) || lookPos.equals(root)) {
+                continue;
+            }
+            if (!lookPos.isLoaded()) {
+                frontier.put(lookPos, from);
+                continue;
+            }
+            ChunkAccess chunk = lookPos.getChunk();
+            if (chunk == null) {
+                continue;
+            }
+            // Prevent having multiple mains on a network and break all others
+            TileMain maybeMain = lookPos.getTileEntity(TileMain.class);
+            if (maybeMain != null) {
+                nukeAndDrop(lookPos);
+                continue;
+            }
+            BlockEntity tileHere = lookPos.getTileEntity(BlockEntity.class);
+            if (tileHere == null) {
+                continue;
+            }
+            IConnectable capabilityConnectable = StorageNetworkCapabilities.CONNECTABLE_CAPABILITY.get(tileHere, direction.getOpposite());
+            if (capabilityConnectable == null) {
+                continue;
+            }
+            if (capabilityConnectable.getPos() == null) {
+                capabilityConnectable.setPos(lookPos);
+            }
+            DimPos realConnectablePos = capabilityConnectable.getPos();
+            if (realConnectablePos.getWorld() == null) {
+                realConnectablePos.setWorld(from.getWorld());
+            }
+            if (!set.add(realConnectablePos)) {
+                continue;
+            }
+            if (set == members) {
+                joined.add(realConnectablePos);
+                if (rebuilt != null) {
+                    rebuilt.add(realConnectablePos);
+                }
+            }
+            // Only touch the connectables that did not know this network yet, so unchanged chunks are not saved again
+            if (!root.equals(capabilityConnectable.getMainPos())) {
+                capabilityConnectable.setMainPos(root);
+                tileHere.setChanged();
+                chunk.setUnsaved(true);
+            }
+            queue.add(realConnectablePos);
+            changed = true;
+        }
+        return changed;
+    }
+    
+    private static void nukeAndDrop(DimPos lookPos) {
+        lookPos.getWorld().destroyBlock(lookPos.getBlockPos(), true);
+        lookPos.getWorld().removeBlockEntity(lookPos.getBlockPos());
+    }
+}
@@ -25,7 +25,6 @@
 
 package com.lothrazar.storagenetwork.block.main;
 
-import com.google.common.collect.Lists;
 import com.lothrazar.storagenetwork.StorageNetwork;
 import com.lothrazar.storagenetwork.api.*;
 import com.lothrazar.storagenetwork.block.exchange.TileExchange;
@@ -33,10 +32,12 @@ import com.lothrazar.storagenetwork.capability.handler.ItemStackMatcher;
 import com.lothrazar.storagenetwork.registry.SsnRegistry;
 import com.lothrazar.storagenetwork.registry.StorageNetworkCapabilities;
 import com.lothrazar.storagenetwork.util.UtilInventory;
+import com.lothrazar.storagenetwork.util.UtilTileEntity;
 import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.transfer.ResourceView;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.item.ItemKey;
 import dev.architectury.transfer.item.ItemTransfer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -47,17 +48,28 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.chunk.ChunkAccess;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class TileMain extends BlockEntity {
     
-    private Set<DimPos> connectables;
-    private Map<String, DimPos> importCache = new HashMap<>();
-    private boolean shouldRefresh = true;
+    /**
+     * How many positions the network topology may visit per tick while it is being explored.
+     */
+    private static final int TOPOLOGY_BUDGET = 256;
+    private final NetworkTopology topology = new NetworkTopology();
+    private final NetworkRoutingTable routing = new NetworkRoutingTable();
+    private List<StorageEntry> sortedStorages;
+    private Map<DimPos, StorageEntry> storagesByPos = Collections.emptyMap();
+    private boolean sortedSkippedUnloaded;
+    private final NetworkItemIndex itemIndex = new NetworkItemIndex();
+    private final Deque<DimPos> reconcileQueue = new ArrayDeque<>();
+    private final IoScheduler ioScheduler = new IoScheduler();
+    /**
+     * Members that joined the network or got unloaded, and still have to be looked at for auto IO.
+     */
+    private final Set<DimPos> ioPending = new LinkedHashSet<>();
+    private boolean indexed = false;
     
     private DimPos getDimPos() {
         return new DimPos(level, worldPosition);
@@ -67,76 +79,37 @@ public class TileMain extends BlockEntity {
         super(SsnRegistry.MAINTILEENTITY.get(), pos, state);
     }
     
+    /**
+     * @return the network contents, ordered by the priority of the storages holding them and their slots
+     */
     public List<ItemStack> getSortedStacks() {
-        List<ItemStack> stacks = Lists.newArrayList();
-        try {
-            if (getConnectablePositions() == null) {
-                refreshNetwork();
-            }
-        } catch (Exception e) {
-            //since this has external mod connections, if they break then catch it
-            //      for example, AE2 can break with  Ticking GridNode
-            StorageNetwork.LOGGER.info("3rd party storage mod has an error", e);
+        tryEnsureIndexed();
+        List<DimPos> order = new ArrayList<>();
+        for (StorageEntry entry : getSortedConnectableStorage()) {
+            order.add(entry.getKey());
         }
-        try {
-            for (IConnectableLink storage : getSortedConnectableStorage()) {
-                for (ItemStack stack : storage.getStoredStacks(true)) {
-                    if (stack == null || stack.isEmpty()) {
-                        continue;
-                    }
-                    addOrMergeIntoList(stacks, stack);
-                }
-            }
-        } catch (Exception e) {
-            StorageNetwork.LOGGER.info("3rd party storage mod has an error", e);
-        }
-        return stacks;
+        return itemIndex.getStacks(order);
     }
     
     public List<ItemStack> getStacks() {
-        List<ItemStack> stacks = Lists.newArrayList();
+        tryEnsureIndexed();
+        return itemIndex.getStacks();
+    }
+    
+    private void tryEnsureIndexed() {
         try {
-            if (getConnectablePositions() == null) {
-                refreshNetwork();
-            }
+            ensureIndexed();
         } catch (Exception e) {
             //since this has external mod connections, if they break then catch it
             //      for example, AE2 can break with  Ticking GridNode
             StorageNetwork.LOGGER.info("3rd party storage mod has an error", e);
         }
-        try {
-            for (IConnectableLink storage : getConnectableStorage()) {
-                for (ItemStack stack : storage.getStoredStacks(true)) {
-                    if (stack == null || stack.isEmpty()) {
-                        continue;
-                    }
-                    addOrMergeIntoList(stacks, stack);
-                }
-            }
-        } catch (Exception e) {
-            StorageNetwork.LOGGER.info("3rd party storage mod has an error", e);
-        }
-        return stacks;
-    }
-    
-    private static void addOrMergeIntoList(List<ItemStack> list, ItemStack stackToAdd) {
-        boolean added = false;
-        for (ItemStack stack : list) {
-            if (UtilInventory.canStack(stackToAdd, stack)) {
-                stack.setCount(stack.getCount() + stackToAdd.getCount());
-                added = true;
-                break;
-            }
-        }
-        if (!added) {
-            list.add(stackToAdd);
-        }
     }
     
     int emptySlots() {
         int countEmpty = 0;
-        for (IConnectableLink storage : getSortedConnectableStorage()) {
-            countEmpty += storage.getEmptySlots();
+        for (Map.Entry<DimPos, IConnectableLink> storage : getSortedConnectableStorage()) {
+            countEmpty += storage.getValue().getEmptySlots();
         }
         return countEmpty;
     }
@@ -145,94 +118,85 @@ public class TileMain extends BlockEntity {
         if (fil == null) {
             return 0;
         }
-        int totalCount = 0;
-        for (ItemStack stack : getStacks()) {
-            if (!fil.match(stack)) {
-                continue;
-            }
-            totalCount += stack.getCount();
-        }
-        return totalCount;
+        ensureIndexed();
+        return (int) Math.min(itemIndex.getAmount(fil::match), Integer.MAX_VALUE);
     }
     
-    @Override
-    public CompoundTag getUpdateTag() {
-        CompoundTag nbt = new CompoundTag();
-        this.saveAdditional(nbt);
-        return nbt;
+    /**
+     * Builds the item index the first time it is needed, e.g. when a gui queries the network before its first tick.
+     */
+    private void ensureIndexed() {
+        if (indexed || level == null || level.isClientSide) {
+            return;
+        }
+        // Finish any pending exploration right away, the gui should not see a half explored network
+        if (topology.update(getDimPos(), Integer.MAX_VALUE)) {
+            invalidateStorageOrder();
+        }
+        syncIoScheduler();
+        syncIndexedStorages();
     }
     
     /**
-     * This is a recursively called method that traverses all connectable blocks and stores them in this tiles connectables list.
-     *
-     * @param sourcePos
+     * Drops the storages that left the network from the item index and reads the ones that joined it.
+     * Storages that were already indexed are left alone, those are kept up to date by {@link #reconcileStorages()}.
      */
-    private Set<DimPos> getConnectables(DimPos sourcePos) {
-        HashSet<DimPos> result = new HashSet<>();
-        addConnectables(sourcePos, result);
-        return result;
+    private void syncIndexedStorages() {
+        Map<DimPos, IConnectableLink> storages = getConnectableStorage();
+        itemIndex.retainSources(storages.keySet());
+        routing.retain(storages.keySet());
+        reconcileQueue.clear();
+        for (Map.Entry<DimPos, IConnectableLink> storage : storages.entrySet()) {
+            if (!itemIndex.hasSource(storage.getKey())) {
+                reconcile(storage.getKey(), storage.getValue());
+            }
+            reconcileQueue.add(storage.getKey());
+        }
+        indexed = true;
     }
     
-    private void addConnectables(DimPos sourcePos, Set<DimPos> set) {
-        if (sourcePos == null || sourcePos.getWorld() == null || !sourcePos.isLoaded()) {
+    /**
+     * Reconciles a few storages with the item index to pick up changes that did not go through the network.
+     * Every storage gets its turn once per {@link com.lothrazar.storagenetwork.registry.ConfigRegistry#refreshTicks()}.
+     */
+    private void reconcileStorages() {
+        int size = reconcileQueue.size();
+        if (size == 0) {
             return;
         }
-        // Look in all directions
-        for (Direction direction : Direction.values()) {
-            DimPos lookPos = sourcePos.offset(direction);
-            if (!lookPos.isLoaded()) {
-                continue;
-            }
-            ChunkAccess chunk = lookPos.getChunk();
-            if (chunk == null) {
-                continue;
-            }
-            // Prevent having multiple  on a network and break all others.
-            TileMain maybeMain = lookPos.getTileEntity(TileMain.class);
-            if (maybeMain != null && !lookPos.equals(level, worldPosition)) {
-                nukeAndDrop(lookPos);
-                continue;
-            }
-            BlockEntity tileHere = lookPos.getTileEntity(BlockEntity.class);
-            if (tileHere == null) {
+        int refreshTicks = Math.max(1, StorageNetwork.CONFIG.refreshTicks());
+        int budget = (size + refreshTicks - 1) / refreshTicks;
+        for (int i = 0; i < budget; i++) {
+            DimPos pos = reconcileQueue.poll();
+            if (!pos.isLoaded()) {
+                reconcileQueue.add(pos);
                 continue;
             }
-            IConnectable capabilityConnectable = StorageNetworkCapabilities.CONNECTABLE_CAPABILITY.get(tileHere, direction.getOpposite());
-            if (capabilityConnectable == null) {
+            IConnectableLink storage = pos.getCapability(StorageNetworkCapabilities.CONNECTABLE_ITEM_STORAGE_CAPABILITY, null);
+            if (storage == null) {
+                itemIndex.removeSource(pos);
                 continue;
             }
-            //
-            if (capabilityConnectable.getPos() == null) {
-                //  1.15 hax
-                // StorageNetwork.LOGGER.info("1.15 HAX NULL POS !! " + lookPos + "has tile " + tileHere);
-                //wait what 
-                capabilityConnectable.setPos(lookPos);
-                capabilityConnectable.setMainPos(this.getDimPos());
-            }
-            //
-            if (capabilityConnectable != null) {
-                //        IConnectable capabilityConnectable = tileHere.getCapability(StorageNetworkCapabilities.CONNECTABLE_CAPABILITY, direction.getOpposite());
-                capabilityConnectable.setMainPos(getDimPos());
-                DimPos realConnectablePos = capabilityConnectable.getPos();
-                boolean beenHereBefore = set.contains(realConnectablePos);
-                if (beenHereBefore) {
-                    continue;
-                }
-                if (realConnectablePos.getWorld() == null) {
-                    // StorageNetwork.LOGGER.info("1.15 realConnectablePos HAX NULL WORLD  " + realConnectablePos);
-                    realConnectablePos.setWorld(sourcePos.getWorld());
-                }
-                set.add(realConnectablePos);
-                addConnectables(realConnectablePos, set);
-                tileHere.setChanged();
-                chunk.setUnsaved(true);
-            }
+            reconcile(pos, storage);
+            reconcileQueue.add(pos);
+        }
+    }
+    
+    private void reconcile(DimPos pos, IConnectableLink storage) {
+        // Something may have been taken out from the outside
+        routing.clearFull(pos);
+        try {
+            itemIndex.reconcile(pos, visitor -> storage.scanStoredStacks(true, visitor));
+        } catch (Exception e) {
+            StorageNetwork.LOGGER.info("3rd party storage mod has an error", e);
         }
     }
     
-    private static void nukeAndDrop(DimPos lookPos) {
-        lookPos.getWorld().destroyBlock(lookPos.getBlockPos(), true);
-        lookPos.getWorld().removeBlockEntity(lookPos.getBlockPos());
+    @Override
+    public CompoundTag getUpdateTag() {
+        CompoundTag nbt = new CompoundTag();
+        this.saveAdditional(nbt);
+        return nbt;
     }
     
     public static boolean isTargetAllowed(BlockState state) {
@@ -252,15 +216,53 @@ public class TileMain extends BlockEntity {
         if (level.isClientSide) {
             return;
         }
-        shouldRefresh = true;
+        topology.requestRebuild();
     }
     
-    private boolean hasCachedSlot(ItemStack stack) {
-        return importCache.containsKey(getStackKey(stack));
+    /**
+     * Tells the networks around {@code pos} that a connectable was placed or broken there, so that they can update their
+     * topology without exploring the whole network again.
+     */
+    public static void onConnectableChanged(Level level, BlockPos pos, boolean placed) {
+        if (level.isClientSide) {
+            return;
+        }
+        Set<TileMain> mains = new HashSet<>();
+        BlockEntity self = level.getBlockEntity(pos);
+        if (self != null) {
+            addMain(mains, self);
+        }
+        for (Direction direction : Direction.values()) {
+            BlockPos neighbourPos = pos.relative(direction);
+            if (!level.hasChunkAt(neighbourPos)) {
+                continue;
+            }
+            BlockEntity neighbour = level.getBlockEntity(neighbourPos);
+            if (neighbour != null) {
+                addMain(mains, neighbour);
+            }
+        }
+        DimPos dimPos = new DimPos(level, pos);
+        for (TileMain main : mains) {
+            if (placed) {
+                main.topology.nodeAdded(dimPos);
+            } else {
+                main.topology.nodeRemoved(dimPos);
+                main.invalidateStorageOrder();
+            }
+        }
     }
     
-    private DimPos getCachedSlot(ItemStack stack) {
-        return importCache.get(getStackKey(stack));
+    private static void addMain(Set<TileMain> mains, BlockEntity tile) {
+        if (tile instanceof TileMain) {
+            mains.add((TileMain) tile);
+            return;
+        }
+        IConnectable connectable = StorageNetworkCapabilities.CONNECTABLE_CAPABILITY.get(tile, null);
+        TileMain main = UtilTileEntity.getTileMainForConnectable(connectable);
+        if (main != null) {
+            mains.add(main);
+        }
     }
     
     /**
@@ -270,74 +272,160 @@ public class TileMain extends BlockEntity {
         if (stack.isEmpty()) {
             return 0;
         }
-        // 1. Try to insert into a recent slot for the same item.
+        ItemKey key = ItemKey.of(stack);
+        List<StorageEntry> storages = getSortedConnectableStorage();
+        Set<DimPos> tried = new HashSet<>();
+        // 1. Try the storages that recently took the same item.
         //    We do this to avoid having to search for the appropriate inventory repeatedly.
-        String key = getStackKey(stack);
-        if (hasCachedSlot(stack)) {
-            DimPos cachedStoragePos = getCachedSlot(stack);
-            IConnectableLink storage = cachedStoragePos.getCapability(StorageNetworkCapabilities.CONNECTABLE_ITEM_STORAGE_CAPABILITY, null);
-            if (storage == null) {
-                // The block at the cached position is not even an IConnectableLink anymore
-                importCache.remove(key);
-            } else {
-                // But if it is, we test whether it can still import that particular stack and do so if it does.
-                boolean canStillImport = storage.getSupportedTransferDirection().match(EnumStorageDirection.IN);
-                if (canStillImport && storage.insertStack(stack, true).getCount() < stack.getCount()) {
-                    stack = storage.insertStack(stack, simulate);
-                } else {
-                    importCache.remove(key);
-                }
+        for (DimPos pos : routing.getRoutes(key)) {
+            StorageEntry entry = storagesByPos.get(pos);
+            if (entry == null || !canImport(entry.getValue())) {
+                // The storage left the network or can not import anymore
+                routing.forget(key, pos);
+                continue;
+            }
+            tried.add(pos);
+            stack = route(key, entry, stack, simulate);
+            if (stack.isEmpty()) {
+                return 0;
             }
         }
-        // 2. If everything got transferred into the cached storage, end here
-        if (stack.isEmpty()) {
-            return 0;
-        }
-        // 3. Otherwise try to find a new inventory that can take the remainder of the itemstack
-        List<IConnectableLink> storages = getSortedConnectableStorage();
-        for (IConnectableLink storage : storages) {
-            try {
-                // Ignore storages that can not import
-                if (!storage.getSupportedTransferDirection().match(EnumStorageDirection.IN)) {
+        // 2. Then the storages that already hold the item, in priority order
+        Set<DimPos> holders = itemIndex.getSources(stack);
+        if (!holders.isEmpty()) {
+            for (StorageEntry entry : storages) {
+                if (!holders.contains(entry.getKey()) || !tried.add(entry.getKey()) || !canImport(entry.getValue())) {
                     continue;
                 }
-                // The given import-capable storage can not import this particular stack
-                if (storage.insertStack(stack, true).getCount() > stack.getCount()) {
-                    continue;
+                stack = route(key, entry, stack, simulate);
+                if (stack.isEmpty()) {
+                    return 0;
                 }
-                // If it can we need to know, i.e. store the remainder
-                stack = storage.insertStack(stack, simulate);
-            } catch (Exception e) {
-                StorageNetwork.LOGGER.error("insertStack container issue", e);
+            }
+        }
+        // 3. Otherwise try to find a new inventory that can take the remainder of the itemstack, skipping the full ones
+        for (StorageEntry entry : storages) {
+            if (tried.contains(entry.getKey()) || routing.isKnownFull(entry.getKey()) || !canImport(entry.getValue())) {
+                continue;
+            }
+            stack = route(key, entry, stack, simulate);
+            if (stack.isEmpty()) {
+                return 0;
             }
         }
         return stack.getCount();
     }
     
-    private static String getStackKey(ItemStack stackInCopy) {
-        return stackInCopy.getItem().arch$registryName().toString();
+    private static boolean canImport(IConnectableLink storage) {
+        return storage.getSupportedTransferDirection().match(EnumStorageDirection.IN);
     }
     
     /**
-     * Pull into the network from the relevant linked cables
+     * Inserts into a single storage and updates the routing table with the outcome, simulations leave it alone.
+     */
+    private ItemStack route(ItemKey key, StorageEntry entry, ItemStack stack, boolean simulate) {
+        DimPos pos = entry.getKey();
+        try {
+            ItemStack remainder = insertInto(pos, entry.getValue(), stack, simulate);
+            if (simulate) {
+                return remainder;
+            }
+            if (remainder.getCount() < stack.getCount()) {
+                routing.learn(key, pos);
+                if (!remainder.isEmpty()) {
+                    // It took what it could and kept the rest, so it has no empty slot left
+                    // and can only take the items it already holds, which step 2 takes care of
+                    routing.markFull(pos);
+                }
+            } else {
+                routing.forget(key, pos);
+            }
+            return remainder;
+        } catch (Exception e) {
+            StorageNetwork.LOGGER.error("insertStack container issue", e);
+            return stack;
+        }
+    }
+    
+    private ItemStack insertInto(DimPos pos, IConnectableLink storage, ItemStack stack, boolean simulate) {
+        ItemStack remainder = storage.insertStack(stack, simulate);
+        if (!simulate) {
+            itemIndex.add(pos, stack, stack.getCount() - remainder.getCount());
+        }
+        return remainder;
+    }
+    
+    /**
+     * Schedules the auto IO cables that joined the network and drops the ones that left it.
+     * Only the members that joined since the last sync are looked at, unloaded ones are kept for the next sync.
      */
-    private void updateImports() {
-        for (IConnectable connectable : getConnectables()) {
-            if (connectable == null || connectable.getPos() == null) {
+    private void syncIoScheduler() {
+        Set<DimPos> connectables = topology.getMembers();
+        ioScheduler.retain(connectables);
+        ioPending.addAll(topology.drainJoined());
+        long now = level.getGameTime();
+        Iterator<DimPos> iterator = ioPending.iterator();
+        while (iterator.hasNext()) {
+            DimPos pos = iterator.next();
+            if (!connectables.contains(pos) || ioScheduler.isScheduled(pos)) {
+                iterator.remove();
                 continue;
             }
-            IConnectableItemAutoIO storage = connectable.getPos().getCapability(StorageNetworkCapabilities.CONNECTABLE_AUTO_IO, null);
-            if (storage == null) {
+            if (!pos.isLoaded()) {
                 continue;
             }
+            iterator.remove();
+            IConnectableItemAutoIO storage = pos.getCapability(StorageNetworkCapabilities.CONNECTABLE_AUTO_IO, null);
+            if (storage != null) {
+                ioScheduler.scheduleFirst(pos, now, storage.getTickInterval());
+            }
+        }
+    }
+    
+    /**
+     * Runs the auto IO cables that are due this tick, then schedules them again with their current interval.
+     * Cables that got unloaded are picked up again by the next network refresh.
+     */
+    private void updateIO() {
+        long now = level.getGameTime();
+        List<DimPos> due = ioScheduler.poll(now);
+        if (due.isEmpty()) {
+            return;
+        }
+        // Resolve every cable once, the imports, exports and rescheduling all use the same capability
+        Map<DimPos, IConnectableItemAutoIO> cables = new LinkedHashMap<>();
+        for (DimPos pos : due) {
+            if (!pos.isLoaded()) {
+                ioPending.add(pos);
+                continue;
+            }
+            IConnectableItemAutoIO storage = pos.getCapability(StorageNetworkCapabilities.CONNECTABLE_AUTO_IO, null);
+            if (storage != null) {
+                cables.put(pos, storage);
+            }
+        }
+        updateImports(cables);
+        updateExports(cables);
+        for (Map.Entry<DimPos, IConnectableItemAutoIO> cable : cables.entrySet()) {
+            ioScheduler.schedule(cable.getKey(), now + Math.max(1, cable.getValue().getTickInterval()));
+        }
+    }
+    
+    /**
+     * Pull into the network from the relevant linked cables
+     */
+    private void updateImports(Map<DimPos, IConnectableItemAutoIO> cables) {
+        for (Map.Entry<DimPos, IConnectableItemAutoIO> cable : cables.entrySet()) {
+            DimPos pos = cable.getKey();
+            IConnectableItemAutoIO storage = cable.getValue();
             //
             // We explicitely don't want to check whether this can do BOTH, because we don't
             // want to import what we've just exported in updateExports().
             if (storage.ioDirection() != EnumStorageDirection.IN) {
                 continue;
             }
-            // Give the storage a chance to have a cooldown or other conditions that prevent it from running
-            if (!storage.runNow(connectable.getPos(), this)) {
+            // Give the storage a chance to have other conditions that prevent it from running, the cooldown is handled by the scheduler
+            if (!storage.isOperationAllowed(pos, this)) {
                 continue;
             }
             //      int amtToRequest = storage.getTransferRate();
@@ -350,7 +438,7 @@ public class TileMain extends BlockEntity {
                 continue;
             }
             if (storage.needsRedstone()) {
-                boolean power = level.hasNeighborSignal(connectable.getPos().getBlockPos());
+                boolean power = level.hasNeighborSignal(pos.getBlockPos());
                 if (power == false) {
                     continue;
                 }
@@ -364,7 +452,7 @@ public class TileMain extends BlockEntity {
                 if (storage.getFilters() == null || !storage.getFilters().isStackFiltered(stackCurrent)) {
                     if (storage.isStockMode()) {
                         int filterSize = storage.getFilters().getStackCount(stackCurrent);
-                        BlockEntity tileEntity = level.getBlockEntity(connectable.getPos().getBlockPos().relative(storage.facingInventory()));
+                        BlockEntity tileEntity = level.getBlockEntity(pos.getBlockPos().relative(storage.facingInventory()));
                         TransferHandler<ItemStack> targetInventory = ItemTransfer.BLOCK.get(tileEntity, storage.facingInventory().getOpposite());
                         //request with false to see how many even exist in there.
                         int chestHowMany = UtilInventory.countHowMany(targetInventory, stackCurrent);
@@ -428,28 +516,21 @@ public class TileMain extends BlockEntity {
     /**
      * push OUT of the network to attached export cables
      */
-    private void updateExports() {
-        Set<IConnectable> conSet = getConnectables();
-        for (IConnectable connectable : conSet) {
-            if (connectable == null || connectable.getPos() == null) {
-                //        StorageNetwork.log("null connectable or pos : updateExports() ");
-                continue;
-            }
-            IConnectableItemAutoIO storage = connectable.getPos().getCapability(StorageNetworkCapabilities.CONNECTABLE_AUTO_IO, null);
-            if (storage == null) {
-                continue;
-            }
+    private void updateExports(Map<DimPos, IConnectableItemAutoIO> cables) {
+        for (Map.Entry<DimPos, IConnectableItemAutoIO> cable : cables.entrySet()) {
+            DimPos pos = cable.getKey();
+            IConnectableItemAutoIO storage = cable.getValue();
             // We explicitely don't want to check whether this can do BOTH, because we don't
             // want to import what we've just exported in updateExports().
             if (storage.ioDirection() != EnumStorageDirection.OUT) {
                 continue;
             }
-            // Give the storage a chance to have a cooldown
-            if (!storage.runNow(connectable.getPos(), this)) {
+            // Give the storage a chance to have other conditions, the cooldown is handled by the scheduler
+            if (!storage.isOperationAllowed(pos, this)) {
                 continue;
             }
             if (storage.needsRedstone()) {
-                boolean power = level.hasNeighborSignal(connectable.getPos().getBlockPos());
+                boolean power = level.hasNeighborSignal(pos.getBlockPos());
                 if (power == false) {
                     //  StorageNetwork.log(power + " Export pow here ; needs yes skip me");
                     continue;
@@ -467,7 +548,7 @@ public class TileMain extends BlockEntity {
                     StorageNetwork.log("stockMode == TRUE ; updateExports: attempt " + matcher.getStack());
                     //STOCK upgrade means
                     try {
-                        BlockEntity tileEntity = level.getBlockEntity(connectable.getPos().getBlockPos().relative(storage.facingInventory()));
+                        BlockEntity tileEntity = level.getBlockEntity(pos.getBlockPos().relative(storage.facingInventory()));
                         TransferHandler<ItemStack> targetInventory = ItemTransfer.BLOCK.get(tileEntity, null);
                         //request with false to see how many even exist in there.
                         int stillNeeds = UtilInventory.containsAtLeastHowManyNeeded(targetInventory, matcher.getStack(), matcher.getStack().getCount());
@@ -516,17 +597,29 @@ public class TileMain extends BlockEntity {
         if (size == 0 || matcher == null) {
             return ItemStack.EMPTY;
         }
+        ensureIndexed();
+        // Ask the storages that the item index knows to hold a matching item first
+        Set<DimPos> holders = matcher.isNbt() && !matcher.isOre() ? itemIndex.getSources(matcher.getKey()) : itemIndex.getSources(matcher::match);
         // TODO: Test against storage drawers. There was some issue with it: https://github.com/PrinceOfAmber/Storage-Network/issues/19
         IItemStackMatcher usedMatcher = matcher;
         int alreadyTransferred = 0;
-        for (IConnectableLink storage : getSortedConnectableStorage()) {
+        for (StorageEntry storage : getRequestOrder(holders)) {
+            if (alreadyTransferred > 0 && !holders.contains(storage.getKey())) {
+                // The index only misses items it has not reconciled yet, the other storages are not worth asking
+                break;
+            }
             int req = size - alreadyTransferred;
-            ItemStack simExtract = storage.extractStack(usedMatcher, req, simulate);
+            ItemStack simExtract = storage.getValue().extractStack(usedMatcher, req, simulate);
             if (simExtract.isEmpty()) {
                 continue;
             }
+            if (!simulate) {
+                itemIndex.remove(storage.getKey(), simExtract, simExtract.getCount());
+                routing.clearFull(storage.getKey());
+            }
             // Do not stack items of different types together, i.e. make the filter rules more strict for all further items
-            usedMatcher = new ItemStackMatcher(simExtract, matcher.isOre(), matcher.isNbt());
+            // Tags are not matched anymore either, those would mix different items
+            usedMatcher = new ItemStackMatcher(simExtract, false, matcher.isNbt());
             alreadyTransferred += simExtract.getCount();
             if (alreadyTransferred >= size) {
                 break;
@@ -538,6 +631,26 @@ public class TileMain extends BlockEntity {
         return ItemStackHooks.copyWithCount(usedMatcher.getStack(), alreadyTransferred);
     }
     
+    /**
+     * @return the storages ordered by priority, the ones in {@code holders} first, the others are only asked when the
+     * index missed the item, e.g. because it was put in from the outside since the last reconcile
+     */
+    private List<StorageEntry> getRequestOrder(Set<DimPos> holders) {
+        List<StorageEntry> sorted = getSortedConnectableStorage();
+        List<StorageEntry> result = new ArrayList<>(sorted.size());
+        for (StorageEntry storage : sorted) {
+            if (holders.contains(storage.getKey())) {
+                result.add(storage);
+            }
+        }
+        for (StorageEntry storage : sorted) {
+            if (!holders.contains(storage.getKey())) {
+                result.add(storage);
+            }
+        }
+        return result;
+    }
+    
     private Set<IConnectable> getConnectables() {
         Set<DimPos> positions = getConnectablePositions();
         if (positions == null) {
@@ -562,62 +675,108 @@ public class TileMain extends BlockEntity {
         return result;
     }
     
-    private Set<IConnectableLink> getConnectableStorage() {
-        Set<IConnectableLink> result = new HashSet<>();
-        Set<DimPos> conSet = getConnectablePositions();
-        for (DimPos dimpos : conSet) {
-            if (!dimpos.isLoaded()) {
-                continue;
-            }
-            BlockEntity tileEntity = dimpos.getTileEntity(BlockEntity.class);
-            if (tileEntity == null) {
-                continue;
-            }
-            IConnectableLink capConnect = StorageNetworkCapabilities.CONNECTABLE_ITEM_STORAGE_CAPABILITY.get(tileEntity, null);
-            if (capConnect == null) {
-                continue;
+    private Map<DimPos, IConnectableLink> getConnectableStorage() {
+        Map<DimPos, IConnectableLink> result = new LinkedHashMap<>();
+        for (StorageEntry entry : getSortedConnectableStorage()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+    
+    /**
+     * @return the loaded storages of the network ordered by priority, cached until the topology or a priority changes,
+     * or one of the storages is removed or unloaded
+     */
+    private List<StorageEntry> getSortedConnectableStorage() {
+        List<StorageEntry> sorted = sortedStorages;
+        if (sorted != null) {
+            for (int i = 0; i < sorted.size(); i++) {
+                if (sorted.get(i).tile.isRemoved()) {
+                    sorted = null;
+                    break;
+                }
             }
-            if (tileEntity instanceof TileExchange) {
-                StorageNetwork.log("keep going??main tile exhchange bandaid");
-                //        continue;
+        }
+        if (sorted == null) {
+            sorted = sortStorages();
+            sortedStorages = sorted;
+            storagesByPos = new HashMap<>();
+            if (sorted != null) {
+                for (StorageEntry entry : sorted) {
+                    storagesByPos.put(entry.getKey(), entry);
+                }
             }
-            result.add(capConnect);
         }
-        return result;
+        return sorted == null ? Collections.emptyList() : sorted;
     }
     
-    private List<IConnectableLink> getSortedConnectableStorage() {
+    private List<StorageEntry> sortStorages() {
         try {
-            Set<IConnectableLink> storage = getConnectableStorage();
-            Stream<IConnectableLink> stream = storage.stream();
-            List<IConnectableLink> sorted = stream.sorted(Comparator.comparingInt(IConnectableLink::getPriority)).collect(Collectors.toList());
-            return sorted;
+            List<StorageEntry> result = new ArrayList<>();
+            boolean skipped = false;
+            for (DimPos dimpos : topology.getMembers()) {
+                if (!dimpos.isLoaded()) {
+                    skipped = true;
+                    continue;
+                }
+                BlockEntity tileEntity = dimpos.getTileEntity(BlockEntity.class);
+                if (tileEntity == null) {
+                    continue;
+                }
+                IConnectableLink capConnect = StorageNetworkCapabilities.CONNECTABLE_ITEM_STORAGE_CAPABILITY.get(tileEntity, null);
+                if (capConnect == null) {
+                    continue;
+                }
+                if (tileEntity instanceof TileExchange) {
+                    StorageNetwork.log("keep going??main tile exhchange bandaid");
+                    //        continue;
+                }
+                result.add(new StorageEntry(dimpos, capConnect, tileEntity));
+            }
+            result.sort(Comparator.comparingInt(entry -> entry.getValue().getPriority()));
+            sortedSkippedUnloaded = skipped;
+            return Collections.unmodifiableList(result);
         } catch (Exception e) {
             //trying to avoid 
             //java.lang.StackOverflowError: Ticking block entity
             //and similar issues
             StorageNetwork.LOGGER.error("Error: network get sorted by priority error, some network components are disconnected ", e);
-            return new ArrayList<>();
+            return null;
         }
     }
     
+    /**
+     * Drops the cached priority order of the storages, e.g. after the priority of one of them was edited.
+     */
+    public void invalidateStorageOrder() {
+        sortedStorages = null;
+    }
+    
     private void tick() {
         if (level == null || level.isClientSide) {
             return;
         }
         //refresh time in config, default 200 ticks aka 10 seconds
-        if ((level.getGameTime() % StorageNetwork.CONFIG.refreshTicks() == 0)
-                || shouldRefresh) {
-            try {
-                connectables = getConnectables(getDimPos());
-                shouldRefresh = false;
-                level.getChunk(worldPosition).setUnsaved(true);
-            } catch (Throwable e) {
-                StorageNetwork.LOGGER.info("Refresh network error ", e);
-            }
-        }
-        updateImports();
-        updateExports();
+        try {
+            boolean refresh = level.getGameTime() % StorageNetwork.CONFIG.refreshTicks() == 0;
+            if (refresh) {
+                // Chunks next to the network may have been loaded, those are the only places it can grow into on its own
+                topology.checkFrontier();
+            }
+            boolean changed = topology.update(getDimPos(), TOPOLOGY_BUDGET);
+            if (changed || refresh && sortedSkippedUnloaded) {
+                // Storages in chunks that were unloaded when the order was cached may be back
+                invalidateStorageOrder();
+            }
+            if (changed || refresh) {
+                syncIndexedStorages();
+                syncIoScheduler();
+            }
+        } catch (Throwable e) {
+            StorageNetwork.LOGGER.info("Refresh network error ", e);
+        }
+        reconcileStorages();
+        updateIO();
         updateProcess();
     }
     
@@ -637,14 +796,23 @@ public class TileMain extends BlockEntity {
      * @return
      */
     public Set<DimPos> getConnectablePositions() {
-        if (connectables == null) {
-            connectables = new HashSet<>();
-        }
-        return new HashSet<>(connectables);
+        return new HashSet<>(topology.getMembers());
     }
     
     public void clearCache() {
-        importCache = new HashMap<>();
+        routing.clear();
+    }
+    
+    /**
+     * A storage of the network, along with the block entity it was resolved from so that removals can be noticed cheaply.
+     */
+    private static class StorageEntry extends AbstractMap.SimpleImmutableEntry<DimPos, IConnectableLink> {
+        private final BlockEntity tile;
+        
+        private StorageEntry(DimPos pos, IConnectableLink storage, BlockEntity tile) {
+            super(pos, storage);
+            this.tile = tile;
+        }
     }
     
     public static void clientTick(Level level, BlockPos blockPos, BlockState blockState, TileMain tile) {
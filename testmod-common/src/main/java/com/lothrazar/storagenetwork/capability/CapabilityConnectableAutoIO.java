@@ -37,7 +37,6 @@ import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.transfer.ResourceView;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
-import dev.architectury.transfer.item.ItemTransfer;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
@@ -67,6 +66,7 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
     private final FilterItemStackHandler filters = new FilterItemStackHandler();
     private int priority = 0;
     private Direction inventoryFace;
+    private final InventoryLookup inventory = new InventoryLookup();
     private boolean needsRedstone = false;
     public ItemStack operationStack = ItemStack.EMPTY;
     public int operationLimit = 0;
@@ -101,24 +101,23 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
         if (inventoryFace == null) {
             return Collections.emptyList();
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return Collections.emptyList();
         }
         // If it does, iterate its stacks, filter them and add them to the result list
         List<ItemStack> result = new ArrayList<>();
-        for (ResourceView<ItemStack> view : itemHandler) {
-            ItemStack stack = view.getResource();
+        itemHandler.scan((index, stack) -> {
             if (stack == null || stack.isEmpty()) {
-                continue;
+                return true;
             }
             if (isFiltered && filters.isStackFiltered(stack)) {
-                continue;
+                return true;
             }
             result.add(stack.copy());
-        }
+            return true;
+        });
         return result;
     }
     
@@ -203,9 +202,8 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
         if (inventoryFace == null) {
             return stack;
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return stack;
         }
@@ -217,9 +215,8 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
         if (inventoryFace == null) {
             return Collections.emptyList();
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return Collections.emptyList();
         }
@@ -252,8 +249,7 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
         if (inventoryFace == null || direction == EnumStorageDirection.OUT) {
             return null;
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
-        return inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        return inventory.get(connectable.getPos(), inventoryFace);
     }
     
     @Deprecated
@@ -269,9 +265,8 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
         if (inventoryFace == null) {
             return ItemStack.EMPTY;
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return ItemStack.EMPTY;
         }
@@ -342,6 +337,16 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
     
     @Override
     public boolean runNow(DimPos connectablePos, TileMain main) {
+        boolean cooldownOk = (connectablePos.getWorld().getGameTime() % getTickInterval() == 0);
+        if (!cooldownOk) {
+            return false;
+        }
+        //opt: dont check operation count if the cooldown is bad anyway
+        return isOperationAllowed(connectablePos, main);
+    }
+    
+    @Override
+    public int getTickInterval() {
         int speedUpgrades = upgrades.getUpgradesOfType(SsnRegistry.SPEED_UPGRADE.get());
         int slowUpgrades = upgrades.getUpgradesOfType(SsnRegistry.SLOW_UPGRADE.get());
         int speedRatio = IO_DEFAULT_SPEED; // no upgrades
@@ -356,11 +361,11 @@ public class CapabilityConnectableAutoIO implements IConnectableItemAutoIO {
         if (speedRatio < 1) {
             speedRatio = 1; // 0 wont happen but idk maybe
         }
-        boolean cooldownOk = (connectablePos.getWorld().getGameTime() % speedRatio == 0);
-        if (!cooldownOk) {
-            return false;
-        }
-        //opt: dont check operation count if the cooldown is bad anyway
+        return speedRatio;
+    }
+    
+    @Override
+    public boolean isOperationAllowed(DimPos connectablePos, TileMain main) {
         boolean operationLimitOk = doesPassOperationFilterLimit(main);
         StorageNetwork.log("OP allowed to runNow = " + operationLimitOk);
         return operationLimitOk;
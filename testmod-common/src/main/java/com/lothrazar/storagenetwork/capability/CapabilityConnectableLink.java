@@ -29,13 +29,14 @@ import com.lothrazar.storagenetwork.StorageNetwork;
 import com.lothrazar.storagenetwork.api.*;
 import com.lothrazar.storagenetwork.block.exchange.ExchangeItemStackHandler;
 import com.lothrazar.storagenetwork.capability.handler.FilterItemStackHandler;
+import com.lothrazar.storagenetwork.capability.handler.ItemStackMatcher;
 import com.lothrazar.storagenetwork.registry.StorageNetworkCapabilities;
-import com.lothrazar.storagenetwork.util.UtilInventory;
 import dev.architectury.hooks.item.ItemStackHooks;
-import dev.architectury.transfer.ResourceView;
+import dev.architectury.transfer.ResourceVisitor;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
-import dev.architectury.transfer.item.ItemTransfer;
+import dev.architectury.transfer.item.ItemKey;
+import dev.architectury.transfer.item.ItemQuery;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
@@ -43,7 +44,9 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 // TODO: We should add support for CommonCapabilities SlotlessItemHandler for efficiency reasons and compatibility with colossal chests, integrated dynamics etc
@@ -56,6 +59,7 @@ public class CapabilityConnectableLink implements IConnectableLink {
     private FilterItemStackHandler filters = new FilterItemStackHandler();
     private EnumStorageDirection filterDirection = EnumStorageDirection.BOTH;
     private Direction inventoryFace;
+    private final InventoryLookup inventory = new InventoryLookup();
     private int priority;
     
     CapabilityConnectableLink() {
@@ -87,27 +91,43 @@ public class CapabilityConnectableLink implements IConnectableLink {
         if (inventoryFace == null || connectable.getPos() == null) {
             return Collections.emptyList();
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return Collections.emptyList();
         }
         // If it does, iterate its stacks, filter them and add them to the result list
         List<ItemStack> result = new ArrayList<>();
-        for (ResourceView<ItemStack> view : itemHandler) {
-            ItemStack stack = view.getResource();
+        itemHandler.scan((index, stack) -> {
             if (stack == null || stack.isEmpty()) {
-                continue;
+                return true;
             }
             if (isFiltered && filters.isStackFiltered(stack)) {
-                continue;
+                return true;
             }
             result.add(stack.copy());
-        }
+            return true;
+        });
         return result;
     }
     
+    @Override
+    public void scanStoredStacks(boolean isFiltered, ResourceVisitor<ItemStack> visitor) {
+        if (inventoryFace == null || connectable.getPos() == null) {
+            return;
+        }
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
+        if (itemHandler == null) {
+            return;
+        }
+        itemHandler.scan((index, stack) -> {
+            if (stack == null || isFiltered && !stack.isEmpty() && filters.isStackFiltered(stack)) {
+                return visitor.visit(index, ItemStack.EMPTY);
+            }
+            return visitor.visit(index, stack);
+        });
+    }
+    
     @Override
     public ItemStack insertStack(ItemStack stack, boolean simulate) {
         // If this storage is configured to only import into the network, do not
@@ -121,10 +141,9 @@ public class CapabilityConnectableLink implements IConnectableLink {
         if (inventoryFace == null) {
             return stack;
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         try {
             // Test whether the connected block has the IItemHandler capability
-            TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+            TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
             if (itemHandler == null) {
                 return stack;
             }
@@ -150,41 +169,39 @@ public class CapabilityConnectableLink implements IConnectableLink {
         if (inventoryFace == null) {
             return ItemStack.EMPTY;
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return ItemStack.EMPTY;
         }
         if (itemHandler instanceof ExchangeItemStackHandler) {
             return ItemStack.EMPTY;
         }
-        ItemStack[] firstMatchedStack = {ItemStack.EMPTY};
-        int remaining = size;
-        for (ResourceView<ItemStack> view : itemHandler) {
-            //force simulate: allow them to not let me see the stack, also dont extract since it might steal/dupe
-            ItemStack stack = view.extract(s ->
-                            !filters.isStackFiltered(s) && (firstMatchedStack[0].isEmpty() ? matcher.match(s) : UtilInventory.canStack(firstMatchedStack[0], s)),
-                    remaining, TransferAction.SIMULATE);
-            if (stack == null || stack.isEmpty()) {
-                continue;
+        // Look for the items the request may take without simulating on every slot, then go straight to their slots
+        Set<ItemKey> candidates = new LinkedHashSet<>();
+        if (matcher instanceof ItemStackMatcher && ((ItemStackMatcher) matcher).isNbt() && !((ItemStackMatcher) matcher).isOre()) {
+            if (!filters.isStackFiltered(matcher.getStack())) {
+                candidates.add(((ItemStackMatcher) matcher).getKey());
             }
-            // If its not even the item type we're looking for -> continue
-            if (firstMatchedStack[0].isEmpty()) {
-                firstMatchedStack[0] = stack.copy();
+        } else {
+            itemHandler.scan((index, resource) -> {
+                if (!resource.isEmpty() && matcher.match(resource) && !filters.isStackFiltered(resource)) {
+                    candidates.add(ItemKey.of(resource));
+                }
+                return true;
+            });
+        }
+        // The slots of a candidate may refuse extraction, try the next one then
+        for (ItemKey candidate : candidates) {
+            if (candidate.isBlank()) {
+                continue;
             }
-            int toExtract = Math.min(stack.getCount(), remaining);
-            ItemStack extractedStack = view.extractAny(toExtract, simulate ? TransferAction.SIMULATE : TransferAction.ACT);
-            remaining -= extractedStack.getCount();
-            if (remaining <= 0) {
-                break;
+            ItemStack extracted = itemHandler.extract(ItemQuery.exact(candidate), size, simulate ? TransferAction.SIMULATE : TransferAction.ACT);
+            if (extracted != null && !extracted.isEmpty()) {
+                return extracted;
             }
         }
-        int extractCount = size - remaining;
-        if (!firstMatchedStack[0].isEmpty() && extractCount > 0) {
-            firstMatchedStack[0].setCount(extractCount);
-        }
-        return firstMatchedStack[0];
+        return ItemStack.EMPTY;
     }
     
     @Override
@@ -197,21 +214,19 @@ public class CapabilityConnectableLink implements IConnectableLink {
         if (inventoryFace == null) {
             return 0;
         }
-        DimPos inventoryPos = connectable.getPos().offset(inventoryFace);
         // Test whether the connected block has the IItemHandler capability
-        TransferHandler<ItemStack> itemHandler = inventoryPos.getCapability(ItemTransfer.BLOCK, inventoryFace.getOpposite());
+        TransferHandler<ItemStack> itemHandler = inventory.get(connectable.getPos(), inventoryFace);
         if (itemHandler == null) {
             return 0;
         }
-        int emptySlots = 0;
-        for (ResourceView<ItemStack> view : itemHandler) {
-            ItemStack stack = view.getResource();
-            if (stack != null && !stack.isEmpty()) {
-                continue;
+        int[] emptySlots = {0};
+        itemHandler.scan((index, stack) -> {
+            if (stack == null || stack.isEmpty()) {
+                emptySlots[0]++;
             }
-            emptySlots++;
-        }
-        return emptySlots;
+            return true;
+        });
+        return emptySlots[0];
     }
     
     @Override
@@ -0,0 +1,65 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.capability;
+
+import com.lothrazar.storagenetwork.api.DimPos;
+import dev.architectury.transfer.TransferHandler;
+import dev.architectury.transfer.access.BlockLookupCache;
+import dev.architectury.transfer.item.ItemTransfer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+
+/**
+ * Remembers the item handler of the inventory a cable is facing, so it is not looked up again on every tick.
+ */
+class InventoryLookup {
+    
+    @Nullable
+    private BlockLookupCache<TransferHandler<ItemStack>, Direction> cache;
+    
+    @Nullable
+    TransferHandler<ItemStack> get(@Nullable DimPos cablePos, @Nullable Direction inventoryFace) {
+        if (cablePos == null || inventoryFace == null || cablePos.getWorld() == null || cablePos.getBlockPos() == null) {
+            return null;
+        }
+        Level world = cablePos.getWorld();
+        BlockPos pos = cablePos.getBlockPos();
+        if (cache == null || cache.getLevel() != world || !isFacing(cache.getPos(), pos, inventoryFace)) {
+            cache = ItemTransfer.BLOCK.cache(world, pos.relative(inventoryFace));
+        }
+        return cache.get(inventoryFace.getOpposite());
+    }
+    
+    private static boolean isFacing(BlockPos target, BlockPos pos, Direction face) {
+        return target.getX() == pos.getX() + face.getStepX()
+                && target.getY() == pos.getY() + face.getStepY()
+                && target.getZ() == pos.getZ() + face.getStepZ();
+    }
+}
@@ -33,7 +33,6 @@ import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.item.ItemStack;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class FilterItemStackHandler extends ItemStackHandlerEx {
     
@@ -41,6 +40,7 @@ public class FilterItemStackHandler extends ItemStackHandlerEx {
     public boolean tags = false;
     public boolean nbt = false;
     public boolean isAllowList = true;
+    private FilterMatcher compiled;
     
     public FilterItemStackHandler() {
         super(new SimpleContainer(FILTER_SIZE) {
@@ -49,28 +49,44 @@ public class FilterItemStackHandler extends ItemStackHandlerEx {
                 return 1;
             }
         });
+        // Every change to a filter slot goes through the container, recompile lazily on the next match
+        container.addListener($ -> compiled = null);
     }
     
     public void setMatchOreDict(boolean ores) {
         this.tags = ores;
+        compiled = null;
     }
     
     public void setMatchNbt(boolean nbt) {
         this.nbt = nbt;
+        compiled = null;
     }
     
     public void setIsAllowlist(boolean is) {
         isAllowList = is;
     }
     
+    private FilterMatcher getCompiled() {
+        FilterMatcher matcher = compiled;
+        if (matcher == null) {
+            matcher = new FilterMatcher(getStacks(), tags, nbt);
+            compiled = matcher;
+        }
+        return matcher;
+    }
+    
+    /**
+     * @return the matchers of the filter slots, including the empty ones, must not be modified
+     */
     public List<IItemStackMatcher> getStackMatchers() {
-        return getStacks().stream().map(stack -> new ItemStackMatcher(stack, tags, nbt)).collect(Collectors.toList());
+        return getCompiled().getMatchers();
     }
     
     public boolean exactStackAlreadyInList(ItemStack stack) {
         // Should we want not to use the configured rules for nbt, oredict and meta, we can use this line instead, which really matches for the exact stack:
         //return getStacks().stream().map(filteredStack -> new ItemStackMatcher(filteredStack, true, false, true)).anyMatch(matcher -> matcher.match(stack));
-        return getStackMatchers().stream().anyMatch(matcher -> matcher.match(stack));
+        return getCompiled().matches(stack);
     }
     
     public IItemStackMatcher getFirstMatcher(ItemStack stack) {
@@ -83,10 +99,7 @@ public class FilterItemStackHandler extends ItemStackHandlerEx {
     }
     
     public boolean isStackFiltered(ItemStack stack) {
-        if (isAllowList) {
-            return getStackMatchers().stream().noneMatch(matcher -> matcher.match(stack));
-        }
-        return getStackMatchers().stream().anyMatch(matcher -> matcher.match(stack));
+        return getCompiled().matches(stack) != isAllowList;
     }
     
     public boolean allAreEmpty() {
@@ -107,6 +120,7 @@ public class FilterItemStackHandler extends ItemStackHandlerEx {
         tags = rulesTag.getBoolean("tags");
         this.nbt = rulesTag.getBoolean("nbt");
         isAllowList = rulesTag.getBoolean("whitelist");
+        compiled = null;
     }
     
     @Override
@@ -0,0 +1,97 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.capability.handler;
+
+import com.lothrazar.storagenetwork.api.IItemStackMatcher;
+import dev.architectury.transfer.item.ItemKey;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the stacks and rules of a {@link FilterItemStackHandler}, compiled into lookups.
+ * <p>
+ * Matching a stack is a single probe of the item set, or of the keys of its item when NBT is compared. When tags are
+ * matched, the tags of the stack are additionally looked up in the tags of every filtered item.
+ */
+final class FilterMatcher {
+    
+    private final List<IItemStackMatcher> matchers;
+    private final boolean nbt;
+    private final Set<Item> items = new ReferenceOpenHashSet<>();
+    private final Map<Item, List<ItemKey>> keysByItem = new Reference2ObjectOpenHashMap<>();
+    private final Set<TagKey<Item>> tags = new HashSet<>();
+    
+    FilterMatcher(List<ItemStack> stacks, boolean tags, boolean nbt) {
+        this.nbt = nbt;
+        List<IItemStackMatcher> matchers = new ArrayList<>(stacks.size());
+        for (ItemStack stack : stacks) {
+            matchers.add(new ItemStackMatcher(stack, tags, nbt));
+            if (stack.isEmpty()) {
+                continue;
+            }
+            if (nbt) {
+                keysByItem.computeIfAbsent(stack.getItem(), $ -> new ArrayList<>(1)).add(ItemKey.of(stack));
+            } else {
+                items.add(stack.getItem());
+            }
+            if (tags) {
+                stack.getTags().forEach(this.tags::add);
+            }
+        }
+        this.matchers = Collections.unmodifiableList(matchers);
+    }
+    
+    List<IItemStackMatcher> getMatchers() {
+        return matchers;
+    }
+    
+    /**
+     * @return whether any of the filter stacks matches the given stack, same as asking each of {@link #getMatchers()}
+     */
+    boolean matches(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return false;
+        }
+        if (nbt) {
+            List<ItemKey> keys = keysByItem.get(stack.getItem());
+            if (keys != null) {
+                for (int i = 0; i < keys.size(); i++) {
+                    if (keys.get(i).matches(stack)) {
+                        return true;
+                    }
+                }
+            }
+        } else if (items.contains(stack.getItem())) {
+            return true;
+        }
+        return !tags.isEmpty() && stack.getTags().anyMatch(tags::contains);
+    }
+}
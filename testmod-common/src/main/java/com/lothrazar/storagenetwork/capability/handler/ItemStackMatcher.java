@@ -26,6 +26,8 @@
 package com.lothrazar.storagenetwork.capability.handler;
 
 import com.lothrazar.storagenetwork.api.IItemStackMatcher;
+import dev.architectury.transfer.item.ItemKey;
+import dev.architectury.transfer.item.ItemQuery;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
 
@@ -34,6 +36,7 @@ public class ItemStackMatcher implements IItemStackMatcher {
     private ItemStack stack;
     private boolean ore;
     private boolean nbt;
+    private ItemKey key;
     
     public ItemStackMatcher(ItemStack stack) {
         this(stack, false, false);
@@ -51,6 +54,7 @@ public class ItemStackMatcher implements IItemStackMatcher {
     public void readFromNBT(CompoundTag compound) {
         CompoundTag c = (CompoundTag) compound.get("stack");
         stack = ItemStack.of(c);
+        key = null;
         ore = compound.getBoolean("ore");
         nbt = compound.getBoolean("nbt");
     }
@@ -76,6 +80,30 @@ public class ItemStackMatcher implements IItemStackMatcher {
     
     public void setStack(ItemStack stack) {
         this.stack = stack;
+        this.key = null;
+    }
+    
+    /**
+     * @return the item + NBT identity of the matched stack, computed once
+     */
+    public ItemKey getKey() {
+        if (key == null) {
+            key = ItemKey.of(stack);
+        }
+        return key;
+    }
+    
+    /**
+     * @return a query matching the same stacks as {@link #match(ItemStack)}, exact when NBT is compared
+     */
+    public ItemQuery toQuery() {
+        if (ore) {
+            return ItemQuery.matching(this::match);
+        }
+        if (nbt) {
+            return ItemQuery.exact(getKey());
+        }
+        return ItemQuery.item(stack.getItem());
     }
     
     public boolean isOre() {
@@ -105,9 +133,10 @@ public class ItemStackMatcher implements IItemStackMatcher {
         if (stackIn.isEmpty()) {
             return false;
         }
-        if (nbt && !ItemStack.tagMatches(stack, stackIn)) {
-            return false;
+        if (nbt ? getKey().matches(stackIn) : stackIn.getItem() == stack.getItem()) {
+            return true;
         }
-        return stackIn.getItem() == stack.getItem();
+        // Tag mode also accepts any item sharing a tag with the matched one
+        return ore && !stack.isEmpty() && stack.getTags().anyMatch(stackIn::is);
     }
 }
@@ -29,7 +29,6 @@ import com.google.common.collect.Lists;
 import com.lothrazar.storagenetwork.StorageNetwork;
 import com.lothrazar.storagenetwork.block.main.TileMain;
 import com.lothrazar.storagenetwork.capability.handler.ItemStackMatcher;
-import com.lothrazar.storagenetwork.network.StackRefreshClientMessage;
 import com.lothrazar.storagenetwork.registry.PacketRegistry;
 import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.transfer.TransferAction;
@@ -46,7 +45,6 @@ import net.minecraft.world.item.crafting.CraftingRecipe;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -64,12 +62,24 @@ public abstract class ContainerNetwork extends AbstractContainerMenu {
     protected Level world;
     protected CraftingRecipe recipeCurrent;
     public NetworkCraftingInventory matrix;
+    private final NetworkStackSync stackSync = new NetworkStackSync();
     
     protected ContainerNetwork(MenuType<?> type, int id) {
         super(type, id);
         this.resultInventory = new ResultContainer();
     }
     
+    public NetworkStackSync getStackSync() {
+        return stackSync;
+    }
+    
+    /**
+     * Sends the network inventory to the player, only what changed since the last refresh of this container is sent.
+     */
+    public void sendStacks(ServerPlayer player, List<ItemStack> stacks) {
+        PacketRegistry.INSTANCE.sendToPlayer(player, stackSync.createRefresh(containerId, stacks));
+    }
+    
     public CraftingContainer getCraftMatrix() {
         return matrix;
     }
@@ -178,10 +188,9 @@ public abstract class ContainerNetwork extends AbstractContainerMenu {
                 ItemStack stack = rest == 0 ? ItemStack.EMPTY : ItemStackHooks.copyWithCount(itemstack1, rest);
                 slot.set(stack);
                 broadcastChanges();
-                List<ItemStack> list = tileMain.getSortedStacks();
                 if (playerIn instanceof ServerPlayer) {
                     ServerPlayer sp = (ServerPlayer) playerIn;
-                    PacketRegistry.INSTANCE.sendToPlayer(sp, new StackRefreshClientMessage(list, new ArrayList<>()));
+                    sendStacks(sp, tileMain.getSortedStacks());
                 }
                 if (stack.isEmpty()) {
                     return ItemStack.EMPTY;
@@ -0,0 +1,144 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.gui;
+
+import com.lothrazar.storagenetwork.network.StackRefreshClientMessage;
+import dev.architectury.transfer.item.ItemKey;
+import it.unimi.dsi.fastutil.ints.Int2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.*;
+
+/**
+ * Keeps both ends of the network inventory sync of a {@link ContainerNetwork} in step.
+ * <p>
+ * The server side remembers the snapshot it sent last, so after the first full refresh only added, removed and count
+ * changed entries are sent. Entries are addressed by a compact id that is assigned when an item is first sent.
+ * The client side keeps the stacks by id and applies every refresh on top of the previous version.
+ */
+public class NetworkStackSync {
+    
+    private final Map<ItemKey, SentEntry> sent = new HashMap<>();
+    private final Int2ObjectMap<ItemStack> received = new Int2ObjectLinkedOpenHashMap<>();
+    private int nextId;
+    private int version;
+    
+    /**
+     * Server side: creates the refresh that brings the client from the last sent snapshot to {@code stacks}.
+     */
+    public StackRefreshClientMessage createRefresh(int containerId, List<ItemStack> stacks) {
+        boolean reset = version == 0;
+        if (reset) {
+            sent.clear();
+            nextId = 0;
+        }
+        int newVersion = version + 1;
+        Int2ObjectMap<ItemStack> added = new Int2ObjectLinkedOpenHashMap<>();
+        Int2IntMap changed = new Int2IntLinkedOpenHashMap();
+        IntList removed = new IntArrayList();
+        for (ItemStack stack : stacks) {
+            if (stack.isEmpty()) {
+                continue;
+            }
+            ItemKey key = ItemKey.of(stack);
+            SentEntry entry = sent.get(key);
+            if (entry == null) {
+                entry = new SentEntry(nextId++, stack.getCount());
+                sent.put(key, entry);
+                added.put(entry.id, stack.copy());
+            } else if (entry.count != stack.getCount()) {
+                entry.count = stack.getCount();
+                changed.put(entry.id, entry.count);
+            }
+            entry.version = newVersion;
+        }
+        Iterator<SentEntry> iterator = sent.values().iterator();
+        while (iterator.hasNext()) {
+            SentEntry entry = iterator.next();
+            if (entry.version != newVersion) {
+                removed.add(entry.id);
+                iterator.remove();
+            }
+        }
+        version = newVersion;
+        return new StackRefreshClientMessage(containerId, newVersion, reset, added, changed, removed);
+    }
+    
+    /**
+     * Server side: forgets the last sent snapshot, the next refresh will contain everything again.
+     */
+    public void reset() {
+        version = 0;
+    }
+    
+    /**
+     * Client side: applies a refresh received from the server.
+     *
+     * @return false if the refresh does not follow the version we have, in which case nothing was applied
+     */
+    public boolean apply(StackRefreshClientMessage message) {
+        if (message.isReset()) {
+            received.clear();
+        } else if (message.getVersion() != version + 1) {
+            return false;
+        }
+        version = message.getVersion();
+        for (int id : message.getRemoved()) {
+            received.remove(id);
+        }
+        for (Int2IntMap.Entry entry : message.getChanged().int2IntEntrySet()) {
+            ItemStack stack = received.get(entry.getIntKey());
+            if (stack != null) {
+                stack.setCount(entry.getIntValue());
+            }
+        }
+        received.putAll(message.getAdded());
+        return true;
+    }
+    
+    /**
+     * Client side: the stacks as of the last applied refresh.
+     */
+    public List<ItemStack> getStacks() {
+        return new ArrayList<>(received.values());
+    }
+    
+    private static class SentEntry {
+        private final int id;
+        private int count;
+        private int version;
+        
+        private SentEntry(int id, int count) {
+            this.id = id;
+            this.count = count;
+        }
+    }
+}
@@ -114,6 +114,7 @@ public class CableDataMessage {
                     link.getFilter().setIsAllowlist(message.isAllowlist);
                     if (root != null) {
                         root.clearCache();
+                        root.invalidateStorageOrder();
                     }
                     break;
                 case SAVE_FITLER:
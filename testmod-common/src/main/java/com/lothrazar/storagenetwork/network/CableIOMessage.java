@@ -151,6 +151,7 @@ public class CableIOMessage {
                 link.getFilter().setIsAllowlist(message.isAllowlist);
                 if (root != null) {
                     root.clearCache();
+                    root.invalidateStorageOrder();
                 }
                 //        link.operationMustBeSmaller = message.op
                 break;
@@ -27,7 +27,6 @@ package com.lothrazar.storagenetwork.network;
 
 import com.lothrazar.storagenetwork.block.main.TileMain;
 import com.lothrazar.storagenetwork.gui.ContainerNetwork;
-import com.lothrazar.storagenetwork.registry.PacketRegistry;
 import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.networking.NetworkManager;
 import net.minecraft.network.FriendlyByteBuf;
@@ -35,8 +34,6 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.inventory.CraftingContainer;
 import net.minecraft.world.item.ItemStack;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Supplier;
 
 public class ClearRecipeMessage {
@@ -90,8 +87,7 @@ public class ClearRecipeMessage {
                 }
             }
             if (doRefresh) {
-                List<ItemStack> list = root.getStacks();
-                PacketRegistry.INSTANCE.sendToPlayer(player, new StackRefreshClientMessage(list, new ArrayList<>()));
+                container.sendStacks(player, root.getStacks());
                 container.broadcastChanges();
             }
         }
@@ -35,8 +35,6 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Supplier;
 
 public class InsertMessage {
@@ -78,8 +76,7 @@ public class InsertMessage {
             player.containerMenu.setCarried(send);
             //
             PacketRegistry.INSTANCE.sendToPlayer(player, new StackResponseClientMessage(send));
-            List<ItemStack> list = root.getStacks();
-            PacketRegistry.INSTANCE.sendToPlayer(player, new StackRefreshClientMessage(list, new ArrayList<>()));
+            ((ContainerNetwork) player.containerMenu).sendStacks(player, root.getStacks());
             player.containerMenu.broadcastChanges();
         });
     }
@@ -29,7 +29,6 @@ import com.lothrazar.storagenetwork.StorageNetwork;
 import com.lothrazar.storagenetwork.block.main.TileMain;
 import com.lothrazar.storagenetwork.capability.handler.ItemStackMatcher;
 import com.lothrazar.storagenetwork.gui.ContainerNetwork;
-import com.lothrazar.storagenetwork.registry.PacketRegistry;
 import com.lothrazar.storagenetwork.util.UtilInventory;
 import dev.architectury.networking.NetworkManager;
 import dev.architectury.transfer.item.ItemTransfer;
@@ -41,9 +40,7 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.inventory.CraftingContainer;
 import net.minecraft.world.item.ItemStack;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -143,8 +140,7 @@ public class RecipeMessage {
                 //        }
                 //now make sure client sync happens.
                 ctr.slotChanged();
-                List<ItemStack> list = main.getStacks();
-                PacketRegistry.INSTANCE.sendToPlayer(player, new StackRefreshClientMessage(list, new ArrayList<>()));
+                ctr.sendStacks(player, main.getStacks());
             } //end run
         });
     }
@@ -38,8 +38,6 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Supplier;
 
 public class RequestMessage {
@@ -118,8 +116,7 @@ public class RequestMessage {
                     PacketRegistry.INSTANCE.sendToPlayer(player, new StackResponseClientMessage(stack));
                 }
             }
-            List<ItemStack> list = root.getSortedStacks();
-            PacketRegistry.INSTANCE.sendToPlayer(player, new StackRefreshClientMessage(list, new ArrayList<>()));
+            ctr.sendStacks(player, root.getSortedStacks());
             player.containerMenu.broadcastChanges();
         });
     }
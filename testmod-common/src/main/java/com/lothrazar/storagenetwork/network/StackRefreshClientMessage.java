@@ -25,76 +25,131 @@
 
 package com.lothrazar.storagenetwork.network;
 
-import com.google.common.collect.Lists;
 import com.lothrazar.storagenetwork.api.IGuiNetwork;
+import com.lothrazar.storagenetwork.gui.ContainerNetwork;
+import com.lothrazar.storagenetwork.registry.PacketRegistry;
+import dev.architectury.hooks.item.ItemStackHooks;
 import dev.architectury.networking.NetworkManager;
+import it.unimi.dsi.fastutil.ints.*;
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.item.ItemStack;
 
-import java.util.List;
 import java.util.function.Supplier;
 
 /**
- * Refresh the current screen with large data set of stacks.
+ * Refresh the current screen with the network inventory.
  * <p>
- * Used by Containers displaying network inventory as well as most other packets that perform small actions
+ * Used by Containers displaying network inventory as well as most other packets that perform small actions.
+ * The first refresh of a container carries every stack, later ones only carry what changed since the previous
+ * version, see {@link com.lothrazar.storagenetwork.gui.NetworkStackSync}.
  */
 public class StackRefreshClientMessage {
     
-    private final int size;
-    private final int csize;
-    private final List<ItemStack> stacks;
-    private final List<ItemStack> craftableStacks;
+    private final int containerId;
+    private final int version;
+    private final boolean reset;
+    private final Int2ObjectMap<ItemStack> added;
+    private final Int2IntMap changed;
+    private final IntList removed;
     
-    public StackRefreshClientMessage(List<ItemStack> stacks, List<ItemStack> craftableStacks) {
+    public StackRefreshClientMessage(int containerId, int version, boolean reset, Int2ObjectMap<ItemStack> added, Int2IntMap changed, IntList removed) {
         super();
-        this.stacks = stacks;
-        this.craftableStacks = craftableStacks;
-        size = stacks.size();
-        csize = craftableStacks.size();
+        this.containerId = containerId;
+        this.version = version;
+        this.reset = reset;
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+    }
+    
+    public int getVersion() {
+        return version;
+    }
+    
+    public boolean isReset() {
+        return reset;
+    }
+    
+    public Int2ObjectMap<ItemStack> getAdded() {
+        return added;
+    }
+    
+    public Int2IntMap getChanged() {
+        return changed;
+    }
+    
+    public IntList getRemoved() {
+        return removed;
     }
     
     public static void handle(StackRefreshClientMessage message, Supplier<NetworkManager.PacketContext> ctx) {
         ctx.get().queue(() -> {
             Minecraft mc = Minecraft.getInstance();
+            if (mc.player == null || !(mc.player.containerMenu instanceof ContainerNetwork)) {
+                return;
+            }
+            ContainerNetwork container = (ContainerNetwork) mc.player.containerMenu;
+            if (container.containerId != message.containerId) {
+                //a late refresh for a screen that is already closed
+                return;
+            }
+            if (!container.getStackSync().apply(message)) {
+                //we missed a version, ask for everything again
+                PacketRegistry.INSTANCE.sendToServer(new StackResyncMessage(message.containerId));
+                return;
+            }
             if (mc.screen instanceof IGuiNetwork) {
                 IGuiNetwork gui = (IGuiNetwork) mc.screen;
-                gui.setStacks(message.stacks);
+                gui.setStacks(container.getStackSync().getStacks());
             }
         });
     }
     
     public static void encode(StackRefreshClientMessage msg, FriendlyByteBuf buf) {
-        buf.writeInt(msg.size);
-        buf.writeInt(msg.csize);
-        for (ItemStack stack : msg.stacks) {
-            buf.writeNbt(stack.save(new CompoundTag()));
-            buf.writeInt(stack.getCount());
+        buf.writeVarInt(msg.containerId);
+        buf.writeVarInt(msg.version);
+        buf.writeBoolean(msg.reset);
+        buf.writeVarInt(msg.added.size());
+        for (Int2ObjectMap.Entry<ItemStack> entry : msg.added.int2ObjectEntrySet()) {
+            ItemStack stack = entry.getValue();
+            buf.writeVarInt(entry.getIntKey());
+            buf.writeItem(ItemStackHooks.copyWithCount(stack, 1));
+            buf.writeVarInt(stack.getCount());
+        }
+        buf.writeVarInt(msg.changed.size());
+        for (Int2IntMap.Entry entry : msg.changed.int2IntEntrySet()) {
+            buf.writeVarInt(entry.getIntKey());
+            buf.writeVarInt(entry.getIntValue());
         }
-        for (ItemStack stack : msg.craftableStacks) {
-            buf.writeNbt(stack.save(new CompoundTag()));
-            buf.writeInt(stack.getCount());
+        buf.writeVarInt(msg.removed.size());
+        for (int id : msg.removed) {
+            buf.writeVarInt(id);
         }
     }
     
     public static StackRefreshClientMessage decode(FriendlyByteBuf buf) {
-        int size = buf.readInt();
-        int csize = buf.readInt();
-        List<ItemStack> stacks = Lists.newArrayList();
-        for (int i = 0; i < size; i++) {
-            CompoundTag stacktag = buf.readNbt();
-            ItemStack stack = ItemStack.of(stacktag);
-            stack.setCount(buf.readInt());
-            stacks.add(stack);
+        int containerId = buf.readVarInt();
+        int version = buf.readVarInt();
+        boolean reset = buf.readBoolean();
+        int addedSize = buf.readVarInt();
+        Int2ObjectMap<ItemStack> added = new Int2ObjectLinkedOpenHashMap<>(addedSize);
+        for (int i = 0; i < addedSize; i++) {
+            int id = buf.readVarInt();
+            ItemStack stack = buf.readItem();
+            stack.setCount(buf.readVarInt());
+            added.put(id, stack);
+        }
+        int changedSize = buf.readVarInt();
+        Int2IntMap changed = new Int2IntLinkedOpenHashMap(changedSize);
+        for (int i = 0; i < changedSize; i++) {
+            changed.put(buf.readVarInt(), buf.readVarInt());
         }
-        List<ItemStack> craftableStacks = Lists.newArrayList();
-        for (int i = 0; i < csize; i++) {
-            ItemStack stack = ItemStack.of(buf.readNbt());
-            stack.setCount(buf.readInt());
-            craftableStacks.add(stack);
+        int removedSize = buf.readVarInt();
+        IntList removed = new IntArrayList(removedSize);
+        for (int i = 0; i < removedSize; i++) {
+            removed.add(buf.readVarInt());
         }
-        return new StackRefreshClientMessage(stacks, craftableStacks);
+        return new StackRefreshClientMessage(containerId, version, reset, added, changed, removed);
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * This file is part of architectury, licensed under the MIT License.
+ * Copyright (c) 2017 - Original Author is MrRiegel as seen here https://github.com/MrRiegel
+ * - Secondary author  Sam Bassett aka Lothrazar https://minecraft.curseforge.com/members/Lothrazar
+ * Copyright (c) 2020, 2021, 2022 architectury
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lothrazar.storagenetwork.network;
+
+import com.lothrazar.storagenetwork.block.main.TileMain;
+import com.lothrazar.storagenetwork.gui.ContainerNetwork;
+import dev.architectury.networking.NetworkManager;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.function.Supplier;
+
+/**
+ * Sent by the client when a {@link StackRefreshClientMessage} did not follow the version it has, asks the server for a
+ * full refresh of the network inventory.
+ */
+public class StackResyncMessage {
+    
+    private int containerId;
+    
+    private StackResyncMessage() {
+    }
+    
+    public StackResyncMessage(int containerId) {
+        this.containerId = containerId;
+    }
+    
+    public static void handle(StackResyncMessage message, Supplier<NetworkManager.PacketContext> ctx) {
+        ctx.get().queue(() -> {
+            ServerPlayer player = (ServerPlayer) ctx.get().getPlayer();
+            if (!(player.containerMenu instanceof ContainerNetwork)) {
+                return;
+            }
+            ContainerNetwork container = (ContainerNetwork) player.containerMenu;
+            if (container.containerId != message.containerId) {
+                return;
+            }
+            container.getStackSync().reset();
+            TileMain root = container.getTileMain();
+            if (root != null) {
+                container.sendStacks(player, root.getSortedStacks());
+            }
+        });
+    }
+    
+    public static StackResyncMessage decode(FriendlyByteBuf buf) {
+        StackResyncMessage message = new StackResyncMessage();
+        message.containerId = buf.readVarInt();
+        return message;
+    }
+    
+    public static void encode(StackResyncMessage msg, FriendlyByteBuf buf) {
+        buf.writeVarInt(msg.containerId);
+    }
+}
@@ -39,6 +39,7 @@ public class PacketRegistry {
         INSTANCE.register(CableDataMessage.class, CableDataMessage::encode, CableDataMessage::decode, CableDataMessage::handle);
         INSTANCE.register(CableIOMessage.class, CableIOMessage::encode, CableIOMessage::decode, CableIOMessage::handle);
         INSTANCE.register(StackRefreshClientMessage.class, StackRefreshClientMessage::encode, StackRefreshClientMessage::decode, StackRefreshClientMessage::handle);
+        INSTANCE.register(StackResyncMessage.class, StackResyncMessage::encode, StackResyncMessage::decode, StackResyncMessage::handle);
         INSTANCE.register(InsertMessage.class, InsertMessage::encode, InsertMessage::decode, InsertMessage::handle);
         INSTANCE.register(RequestMessage.class, RequestMessage::encode, RequestMessage::decode, RequestMessage::handle);
         INSTANCE.register(ClearRecipeMessage.class, ClearRecipeMessage::encode, ClearRecipeMessage::decode, ClearRecipeMessage::handle);
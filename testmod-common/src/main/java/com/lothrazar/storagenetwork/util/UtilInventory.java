@@ -26,7 +26,6 @@
 package com.lothrazar.storagenetwork.util;
 
 import com.lothrazar.storagenetwork.capability.handler.ItemStackMatcher;
-import dev.architectury.transfer.ResourceView;
 import dev.architectury.transfer.TransferAction;
 import dev.architectury.transfer.TransferHandler;
 import net.minecraft.core.BlockPos;
@@ -104,13 +103,14 @@ public class UtilInventory {
     }
     
     public static int countHowMany(TransferHandler<ItemStack> inv, ItemStack stackIn) {
-        int found = 0;
-        for (ResourceView<ItemStack> view : inv) {
-            if (UtilInventory.canStack(view.getResource(), stackIn)) {
-                found += view.getResource().getCount();
+        int[] found = {0};
+        inv.scan((index, stack) -> {
+            if (UtilInventory.canStack(stack, stackIn)) {
+                found[0] += stack.getCount();
             }
-        }
-        return found;
+            return true;
+        });
+        return found[0];
     }
     
     public static int containsAtLeastHowManyNeeded(TransferHandler<ItemStack> inv, ItemStack stackIn, int minimumCount) {
@@ -126,7 +126,7 @@ public class UtilInventory {
         if (inv == null || fil == null) {
             return ItemStack.EMPTY;
         }
-        return inv.extract(fil::match, num, simulate ? TransferAction.SIMULATE : TransferAction.ACT);
+        return inv.extract(fil.toQuery(), num, simulate ? TransferAction.SIMULATE : TransferAction.ACT);
 //        int extracted = 0;
 //        for (int i = 0; i < inv.getSlots(); i++) {
 //            ItemStack slot = inv.getStackInSlot(i);